@@ -0,0 +1,99 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Caja;
+import costco.sim.logica.Cliente;
+import costco.sim.logica.Escenario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks del ciclo principal de la simulación para ambas estrategias
+ * y distintos números de cajas.
+ * Correr con -prof gc para ver también la tasa de asignación de memoria.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulacionBenchmark {
+
+    @Param({"unica", "multiples"})
+    public String estrategia;
+
+    @Param({"12", "48", "192"})
+    public int numCajas;
+
+    private Simulacion enCurso;
+    private Simulacion conCajasLlenas;
+    private long semilla;
+    private Escenario escenario;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        semilla = 1;
+        escenario = Escenario.porDefecto().conNumCajas(numCajas);
+        enCurso = crear(semilla);
+        enCurso.iniciar();
+
+        // Todas las cajas abiertas con filas de distinto largo
+        conCajasLlenas = crear(semilla);
+        Random random = new Random(semilla);
+        int id = 1;
+        for (Caja caja : conCajasLlenas.getCajas()) {
+            caja.abrir(0);
+            int clientes = random.nextInt(10);
+            for (int i = 0; i < clientes; i++) {
+                caja.agregarCliente(new Cliente(id++), 0);
+            }
+        }
+    }
+
+    private Simulacion crear(long semilla) {
+        return "unica".equals(estrategia)
+                ? new SimulacionFilaUnica(semilla, escenario)
+                : new SimulacionMultiplesFilas(semilla, escenario);
+    }
+
+    /**
+     * Un minuto de simulación; al terminar la jornada se reinicia con otra semilla
+     */
+    @Benchmark
+    public int avanzarTiempo() {
+        if (enCurso.haTerminado()) {
+            enCurso.reiniciar(++semilla);
+            enCurso.iniciar();
+        }
+        enCurso.avanzarTiempo();
+        return enCurso.getClientesAtendidosActual();
+    }
+
+    @Benchmark
+    public int encontrarCajaMenosOcupada() {
+        return conCajasLlenas.encontrarCajaMenosOcupada();
+    }
+
+    /**
+     * Jornada completa de 600 minutos, de principio a fin
+     */
+    @Benchmark
+    public double jornadaCompleta() {
+        Simulacion simulacion = crear(++semilla);
+        simulacion.ejecutarCompleta();
+        return simulacion.getEstadisticas().getTiempoPromedioEspera();
+    }
+}
@@ -0,0 +1,59 @@
+package costco.sim.logica;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de insertar y eliminar en una Cola a medio llenar, según su capacidad
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColaBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int capacidad;
+
+    private Cola<Integer> cola;
+    private Integer elemento;
+
+    @Setup
+    public void preparar() {
+        cola = new Cola<>(capacidad);
+        elemento = 42;
+
+        // Media cola ocupada para que inicio y fin den la vuelta al arreglo
+        for (int i = 0; i < capacidad / 2; i++) {
+            cola.insertar(elemento);
+        }
+    }
+
+    @Benchmark
+    public Integer insertarEliminar() {
+        cola.insertar(elemento);
+        return cola.eliminar();
+    }
+
+    @Benchmark
+    public Integer recorrerConGet() {
+        Integer ultimo = null;
+        for (int i = 0; i < cola.tamanio(); i++) {
+            ultimo = cola.get(i);
+        }
+        return ultimo;
+    }
+}
@@ -0,0 +1,45 @@
+package costco.sim;
+
+import costco.sim.Simulaciones.BuzonInstantaneas;
+import costco.sim.Simulaciones.InstantaneaSimulacion;
+import javafx.animation.AnimationTimer;
+
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Dibuja la simulación en el hilo de JavaFX, sincronizado con cada cuadro.
+ * La simulación corre en un HiloSimulacion; en cada cuadro se toma la
+ * instantánea más reciente del buzón (si hay una nueva) y se redibuja una sola vez.
+ * alAnimar se llama en todos los cuadros, para las vistas que interpolan por su cuenta.
+ */
+public class BucleSimulacion extends AnimationTimer {
+
+    private final BuzonInstantaneas buzon;
+    private final Consumer<InstantaneaSimulacion> alRedibujar;
+    private final LongConsumer alAnimar;
+    private final Runnable alTerminar;
+
+    public BucleSimulacion(BuzonInstantaneas buzon, Consumer<InstantaneaSimulacion> alRedibujar,
+                           LongConsumer alAnimar, Runnable alTerminar) {
+        this.buzon = buzon;
+        this.alRedibujar = alRedibujar;
+        this.alAnimar = alAnimar;
+        this.alTerminar = alTerminar;
+    }
+
+    @Override
+    public void handle(long ahora) {
+        InstantaneaSimulacion instantanea = buzon.tomar();
+        if (instantanea != null) {
+            alRedibujar.accept(instantanea);
+        }
+
+        alAnimar.accept(ahora);
+
+        if (instantanea != null && instantanea.estaTerminada()) {
+            stop();
+            alTerminar.run();
+        }
+    }
+}
@@ -1,4 +1,5 @@
 package costco.sim;
+import costco.sim.grafica.GestorRecursos;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -7,6 +8,12 @@ import javafx.stage.Stage;
 
 public class HelloApplication extends Application {
 
+    @Override
+    public void init() {
+        // Decodifica todas las imágenes antes de que exista la ventana
+        GestorRecursos.cargar();
+    }
+
     @Override
     public void start(Stage primaryStage) {
         try {
@@ -3,15 +3,19 @@ package costco.sim;
 import costco.sim.Simulaciones.*;
 import costco.sim.logica.*;
 import costco.sim.grafica.CajaGrafica;
-import costco.sim.grafica.ClienteGrafico;
+import costco.sim.grafica.PoolClientesGraficos;
+import costco.sim.grafica.VistaLienzo;
+import costco.sim.grafica.VistaNodos;
+import costco.sim.grafica.VistaTienda;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.Pane;
 import javafx.scene.image.ImageView;
+import javafx.stage.FileChooser;
 
-import java.util.*;
-import java.util.function.IntToDoubleFunction;
+import java.io.File;
+import java.io.IOException;
 
 public class HelloController {
 
@@ -22,6 +26,10 @@ public class HelloController {
     @FXML private Button btnPausar;
     @FXML private Button btnDetener;
     @FXML private ComboBox<String> cbVelocidad;
+    @FXML private CheckBox chkLienzo;
+    @FXML private Button btnReproducir;
+    @FXML private CheckBox chkReversa;
+    @FXML private Slider sldPosicion;
     @FXML private ProgressIndicator progreso;
     @FXML private ImageView imagenFondo;
     @FXML private Pane panelAnimaciones;
@@ -30,21 +38,33 @@ public class HelloController {
     @FXML private Label lblCajasAbiertas;
 
     private Simulacion simulacion;
-    private List<CajaGrafica> cajasGraficas;
-    private Timer timer;
+    private HiloSimulacion hiloSimulacion;
+    private ReproductorEventos reproductor;
+    private HiloReproduccion hiloReproduccion;
+    private boolean moviendoPosicion = false;
+    private InstantaneaSimulacion ultimaInstantanea;
+    private Escenario escenario = Escenario.porDefecto();
+    private VistaTienda vista;
+    private VistaNodos vistaNodos;
+    private VistaLienzo vistaLienzo;
+    private double[] cajaX;
+    private double[] cajaY;
+    private BucleSimulacion bucle;
     private boolean pausado = false;
-    private final int[] VELOCIDADES = {1000, 500, 200, 100};
-    private int velocidadActual = 1000;
+    private static final String VELOCIDAD_MAXIMA = "Máxima";
+    private double velocidadActual = 1000;  // ms reales por minuto simulado, 0 = máxima
 
     private static final double ENTRADA_CLIENTES_X = 1150;
     private static final double ENTRADA_CLIENTES_Y = 350;
     private static final double FILA_INICIO_X = 600;
     private static final double FILA_Y = 350;
     private static final int ESPACIO_ENTRE_CLIENTES = 45;
-    private Cola<ClienteGrafico> clientesGraficosLibres;
-    private Cola<ClienteGrafico> clientesGraficosEnUso;
-    private Cola<ClienteGrafico> clientesGraficosTemp;
-    private final int MAX_CLIENTES_GRAFICOS = 50;
+    private PoolClientesGraficos poolClientes;
+    private final int CLIENTES_GRAFICOS_INICIALES = 50;
+    private final int MAX_CLIENTES_GRAFICOS = 400;
+    // Más allá de esto la fila se resume con una insignia "+N"
+    private static final int MAX_VISIBLES_FILA_GENERAL = 12;
+    private static final int MAX_VISIBLES_FILA_CAJA = 5;
 
     @FXML
     public void initialize() {
@@ -53,30 +73,41 @@ public class HelloController {
     }
 
     private void inicializarControles() {
-        cbVelocidad.getItems().addAll("1x", "2x", "5x", "10x");
+        cbVelocidad.getItems().addAll("1x", "2x", "5x", "10x", "100x", "1000x", VELOCIDAD_MAXIMA);
         cbVelocidad.setValue("1x");
+
+        // Solo lo que mueve el usuario se convierte en búsqueda, no lo que pone actualizarInterfaz
+        sldPosicion.valueProperty().addListener((obs, anterior, nuevo) -> {
+            if (!moviendoPosicion && hiloReproduccion != null) {
+                hiloReproduccion.buscar(nuevo.doubleValue());
+            }
+        });
     }
 
     private void inicializarEstados() {
-        lblTiempo.setText("Tiempo: 0/600 min");
+        lblTiempo.setText(String.format("Tiempo: 0/%d min", escenario.tiempoSimulacion()));
         lblClientesAtendidos.setText("Clientes: 0");
         lblEsperaPromedio.setText("Espera Prom: 0.0 min");
-        lblCajasAbiertas.setText("Cajas: 0/12");
+        lblCajasAbiertas.setText(String.format("Cajas: 0/%d", escenario.numCajas()));
         progreso.setProgress(0.0);
         inicializarPoolClientes();
     }
 
     private void inicializarPoolClientes() {
-        clientesGraficosLibres = new Cola<>(MAX_CLIENTES_GRAFICOS);
-        clientesGraficosEnUso = new Cola<>(MAX_CLIENTES_GRAFICOS);
-        clientesGraficosTemp = new Cola<>(MAX_CLIENTES_GRAFICOS);
-
-        for (int i = 0; i < MAX_CLIENTES_GRAFICOS; i++) {
-            ClienteGrafico clienteGrafico = new ClienteGrafico(null, ENTRADA_CLIENTES_X, ENTRADA_CLIENTES_Y);
-            clienteGrafico.setVisible(false);
-            clientesGraficosLibres.insertar(clienteGrafico);
-            panelAnimaciones.getChildren().add(clienteGrafico);
+        poolClientes = new PoolClientesGraficos(panelAnimaciones, CLIENTES_GRAFICOS_INICIALES,
+                MAX_CLIENTES_GRAFICOS, ENTRADA_CLIENTES_X, ENTRADA_CLIENTES_Y);
+        vistaNodos = new VistaNodos(panelAnimaciones, poolClientes);
+    }
+
+    private VistaTienda elegirVista() {
+        if (!chkLienzo.isSelected()) {
+            return vistaNodos;
+        }
+        // La hoja de sprites se arma solo si se usa
+        if (vistaLienzo == null) {
+            vistaLienzo = new VistaLienzo(panelAnimaciones, ENTRADA_CLIENTES_X, ENTRADA_CLIENTES_Y);
         }
+        return vistaLienzo;
     }
 
     @FXML
@@ -84,340 +115,263 @@ public class HelloController {
         try {
 
             simulacion = rbFilaUnica.isSelected() ?
-                    new SimulacionFilaUnica() : new SimulacionMultiplesFilas();
+                    new SimulacionFilaUnica(System.nanoTime(), escenario) :
+                    new SimulacionMultiplesFilas(System.nanoTime(), escenario);
             simulacion.iniciar();
 
-            panelAnimaciones.getChildren().clear();
-            reinicializarPoolClientes();
-            crearCajasGraficas();
-
-            rbFilaUnica.setDisable(true);
-            rbMultiple.setDisable(true);
-            btnIniciar.setDisable(true);
-            btnPausar.setDisable(false);
-            btnDetener.setDisable(false);
+            calcularPosicionesCajas(simulacion.getCajas().size());
+            vista = elegirVista();
+            vista.setMsPorMinuto(velocidadActual);
+            vista.preparar(cajaX, cajaY);
 
-            pausado = false;
-            progreso.setProgress(0.0);
+            bloquearControles();
 
-            timer = new Timer(true);
-            timer.scheduleAtFixedRate(new TimerTask() {
-                @Override
-                public void run() {
-                    if (!pausado) avanzarSimulacion();
-                }
-            }, 0, velocidadActual);
+            // A partir de aquí solo el hilo de simulación toca la simulación
+            BuzonInstantaneas buzon = new BuzonInstantaneas();
+            hiloSimulacion = new HiloSimulacion(simulacion, minutosPorSegundo(), buzon);
+            bucle = new BucleSimulacion(buzon, this::actualizarInterfaz, vista::animar, this::terminarSimulacion);
+            bucle.start();
+            hiloSimulacion.iniciar();
 
         } catch (Exception e) {
             manejarError("Error al iniciar simulación", e);
         }
     }
 
-    private void reinicializarPoolClientes() {
-        // Limpiar todas las colas
-        while (!clientesGraficosEnUso.estaVacia()) {
-            ClienteGrafico cg = clientesGraficosEnUso.eliminar();
-            cg.setCliente(null);
-            cg.setVisible(false);
-            clientesGraficosLibres.insertar(cg);
+    /**
+     * Reproduce un archivo de GrabadorEventos por el mismo camino que la
+     * simulación en vivo: instantáneas al buzón y BucleSimulacion las dibuja.
+     * La velocidad sirve de avance rápido, la casilla de reversa cambia la
+     * dirección y la barra busca cualquier minuto.
+     */
+    @FXML
+    private void abrirRegistro() {
+        FileChooser selector = new FileChooser();
+        selector.setTitle("Abrir registro de eventos");
+        selector.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Registro de eventos", "*.bin"),
+                new FileChooser.ExtensionFilter("Todos los archivos", "*.*"));
+        File archivo = selector.showOpenDialog(panelAnimaciones.getScene().getWindow());
+        if (archivo == null) {
+            return;
         }
 
-        while (!clientesGraficosTemp.estaVacia()) {
-            ClienteGrafico cg = clientesGraficosTemp.eliminar();
-            cg.setCliente(null);
-            cg.setVisible(false);
-            clientesGraficosLibres.insertar(cg);
+        try {
+            reproductor = new ReproductorEventos(archivo.toPath());
+        } catch (IOException | IllegalArgumentException e) {
+            manejarError("No se pudo abrir el registro", e);
+            return;
         }
 
-        // Asegurarse de que todos los clientes gráficos estén en libres
-        Cola<ClienteGrafico> todosClientes = new Cola<>(MAX_CLIENTES_GRAFICOS);
-        while (!clientesGraficosLibres.estaVacia()) {
-            ClienteGrafico cg = clientesGraficosLibres.eliminar();
-            cg.setCliente(null);
-            cg.setVisible(false);
-            todosClientes.insertar(cg);
-        }
+        calcularPosicionesCajas(reproductor.getNumeroCajas());
+        vista = elegirVista();
+        vista.setMsPorMinuto(velocidadActual);
+        vista.preparar(cajaX, cajaY);
+
+        bloquearControles();
+        chkReversa.setSelected(false);
+        chkReversa.setDisable(false);
+        moviendoPosicion = true;
+        sldPosicion.setMax(reproductor.getTiempoFinal());
+        sldPosicion.setValue(0);
+        moviendoPosicion = false;
+        sldPosicion.setDisable(false);
+
+        // A partir de aquí solo el hilo de reproducción toca al reproductor
+        BuzonInstantaneas buzon = new BuzonInstantaneas();
+        hiloReproduccion = new HiloReproduccion(reproductor, minutosPorSegundo(), buzon);
+        // Las instantáneas de una reproducción nunca vienen terminadas
+        bucle = new BucleSimulacion(buzon, this::actualizarInterfaz, vista::animar, () -> { });
+        bucle.start();
+        hiloReproduccion.iniciar();
+    }
 
-        // Re-agregar todos al panel
-        Cola<ClienteGrafico> temp = new Cola<>(MAX_CLIENTES_GRAFICOS);
-        while (!todosClientes.estaVacia()) {
-            ClienteGrafico cg = todosClientes.eliminar();
-            if (!panelAnimaciones.getChildren().contains(cg)) {
-                panelAnimaciones.getChildren().add(cg);
-            }
-            temp.insertar(cg);
+    @FXML
+    private void cambiarDireccion() {
+        if (hiloReproduccion != null) {
+            hiloReproduccion.setReversa(chkReversa.isSelected());
         }
+    }
+
+    private void bloquearControles() {
+        rbFilaUnica.setDisable(true);
+        rbMultiple.setDisable(true);
+        chkLienzo.setDisable(true);
+        btnIniciar.setDisable(true);
+        btnReproducir.setDisable(true);
+        btnPausar.setDisable(false);
+        btnDetener.setDisable(false);
 
-        clientesGraficosLibres = temp;
+        pausado = false;
+        progreso.setProgress(0.0);
     }
 
-    private void crearCajasGraficas() {
-        cajasGraficas = new ArrayList<>();
-        ArrayList<Caja> cajas = simulacion.getCajas();
+    private void calcularPosicionesCajas(int numCajas) {
+        cajaX = new double[numCajas];
+        cajaY = new double[numCajas];
 
         int inicioCajasX = 157, inicioCajasY = 205;
         int espacioEntreCajasX = 300, espacioEntreCajasY = 45;
         int desplazamientoX = -40;
 
-        for (int i = 0; i < cajas.size(); i++) {
+        for (int i = 0; i < numCajas; i++) {
             int fila = i / 2, columna = i % 2;
-            int posX = inicioCajasX + (columna * espacioEntreCajasX) + (fila * desplazamientoX);
-            int posY = inicioCajasY + (fila * espacioEntreCajasY);
-
-            CajaGrafica cajaGrafica = new CajaGrafica(cajas.get(i), posX, posY);
-            cajasGraficas.add(cajaGrafica);
-            panelAnimaciones.getChildren().add(cajaGrafica);
-            cajaGrafica.actualizar();
+            cajaX[i] = inicioCajasX + (columna * espacioEntreCajasX) + (fila * desplazamientoX);
+            cajaY[i] = inicioCajasY + (fila * espacioEntreCajasY);
         }
     }
 
-    private void avanzarSimulacion() {
-        if (simulacion.haTerminado()) {
-            Platform.runLater(() -> {
-                detenerSimulacion();
-                mostrarResultadosFinales();
-            });
-            return;
-        }
-
-        simulacion.avanzarTiempo();
-        Platform.runLater(() -> actualizarInterfaz());
+    private void terminarSimulacion() {
+        detenerSimulacion();
+        // showAndWait no se permite durante un pulso de animación
+        Platform.runLater(this::mostrarResultadosFinales);
     }
 
     @FXML
     private void pausarReanudar() {
         pausado = !pausado;
+        if (hiloSimulacion != null) {
+            hiloSimulacion.setPausado(pausado);
+        }
+        if (hiloReproduccion != null) {
+            hiloReproduccion.setPausado(pausado);
+        }
         btnPausar.setText(pausado ? "REANUDAR" : "PAUSAR");
     }
 
     @FXML
     private void detenerSimulacion() {
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
+        if (hiloSimulacion != null) {
+            hiloSimulacion.detener();
+            hiloSimulacion = null;
+        }
+        if (hiloReproduccion != null) {
+            hiloReproduccion.detener();
+            hiloReproduccion = null;
         }
+        if (bucle != null) {
+            bucle.stop();
+            bucle = null;
+        }
+        cerrarReproductor();
         rbFilaUnica.setDisable(false);
         rbMultiple.setDisable(false);
+        chkLienzo.setDisable(false);
         btnIniciar.setDisable(false);
+        btnReproducir.setDisable(false);
+        chkReversa.setDisable(true);
+        sldPosicion.setDisable(true);
         btnPausar.setDisable(true);
         btnDetener.setDisable(true);
         pausado = false;
         progreso.setProgress(0.0);
     }
 
-    @FXML
-    private void cambiarVelocidad() {
-        Map<String, Integer> velocidadMap = Map.of(
-                "1x", VELOCIDADES[0],
-                "2x", VELOCIDADES[1],
-                "5x", VELOCIDADES[2],
-                "10x", VELOCIDADES[3]
-        );
-
-        velocidadActual = velocidadMap.get(cbVelocidad.getValue());
-
-        if (timer != null) {
-            reiniciarTimer();
+    private void cerrarReproductor() {
+        if (reproductor == null) {
+            return;
         }
-    }
-
-    private void reiniciarTimer() {
-        boolean estabaPausado = pausado;
-        timer.cancel();
-        timer = new Timer(true);
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                if (!pausado) avanzarSimulacion();
-            }
-        }, 0, velocidadActual);
-        pausado = estabaPausado;
-    }
-
-    private void actualizarInterfaz() {
-        int tiempo = simulacion.getTiempoActual();
-        lblTiempo.setText(String.format("Tiempo: %d/600 min (%.1f%%)", tiempo, (tiempo * 100.0 / 600)));
-        progreso.setProgress(tiempo / 600.0);
-
-        actualizarClientes();
-
-        for (CajaGrafica cajaGrafica : cajasGraficas) {
-            cajaGrafica.actualizar();
+        try {
+            reproductor.close();
+        } catch (IOException e) {
+            System.err.println("Error cerrando registro: " + e.getMessage());
         }
-
-        Estadistica stats = simulacion.getEstadisticas();
-        lblClientesAtendidos.setText(String.format("Clientes: %d", stats.getTotalClientesAtendidos()));
-        lblEsperaPromedio.setText(String.format("Espera Prom: %.2f min", stats.getTiempoPromedioEspera()));
-
-        int cajasAbiertas = simulacion.getCajasAbiertas();
-        lblCajasAbiertas.setText(String.format("Cajas: %d/12", cajasAbiertas));
+        reproductor = null;
     }
 
-    private void actualizarClientes() {
-        Set<Cliente> clientesActuales = new HashSet<>();
+    @FXML
+    private void cambiarVelocidad() {
+        String velocidad = cbVelocidad.getValue();
+        velocidadActual = VELOCIDAD_MAXIMA.equals(velocidad)
+                ? 0
+                : 1000.0 / Double.parseDouble(velocidad.replace("x", ""));
 
-        if (simulacion instanceof SimulacionFilaUnica) {
-            actualizarClientesFilaUnica(clientesActuales);
-        } else {
-            actualizarClientesFilasMultiples(clientesActuales);
+        if (hiloSimulacion != null) {
+            hiloSimulacion.setMinutosPorSegundo(minutosPorSegundo());
         }
-
-        limpiarClientesTerminados(clientesActuales);
-    }
-
-    private void actualizarClientesFilaUnica(Set<Cliente> clientesActuales) {
-        SimulacionFilaUnica simFilaUnica = (SimulacionFilaUnica) simulacion;
-
-        // Fila global
-        Cola<Cliente> colaGlobal = simFilaUnica.getFilaGeneral();
-        procesarColaClientes(colaGlobal, clientesActuales,
-                pos -> FILA_INICIO_X + (pos * ESPACIO_ENTRE_CLIENTES),
-                pos -> FILA_Y);
-
-        // Cajas individuales
-        actualizarClientesEnCajas(clientesActuales);
-    }
-
-    private void actualizarClientesFilasMultiples(Set<Cliente> clientesActuales) {
-        actualizarClientesEnCajas(clientesActuales);
-    }
-
-    private void actualizarClientesEnCajas(Set<Cliente> clientesActuales) {
-        for (int i = 0; i < Math.min(simulacion.getCajas().size(), cajasGraficas.size()); i++) {
-            Caja caja = simulacion.getCajas().get(i);
-            CajaGrafica cajaGrafica = cajasGraficas.get(i);
-
-            if (!caja.estaAbierta()) continue;
-
-            // Clientes en cola
-            Cola<Cliente> colaCaja = caja.getColaClientes();
-            procesarColaClientes(colaCaja, clientesActuales,
-                    pos -> cajaGrafica.getLayoutX() + 120 + (pos * ESPACIO_ENTRE_CLIENTES),
-                    pos -> cajaGrafica.getCentroY());
-
-            // Cliente siendo atendido
-            Cliente clienteAtendiendo = caja.getClienteActualPagando();
-            if (clienteAtendiendo != null) {
-                clientesActuales.add(clienteAtendiendo);
-                double offsetX = (simulacion instanceof SimulacionFilaUnica) ? 40 : 50;
-                actualizarOCrearCliente(clienteAtendiendo,
-                        cajaGrafica.getCentroX() - offsetX,
-                        cajaGrafica.getCentroY());
-            }
+        if (hiloReproduccion != null) {
+            hiloReproduccion.setMinutosPorSegundo(minutosPorSegundo());
         }
-    }
-
-    private void procesarColaClientes(Cola<Cliente> cola, Set<Cliente> clientesActuales,
-                                      IntToDoubleFunction posXFunction,
-                                      IntToDoubleFunction posYFunction) {
-        Cliente[] clientesEnCola = getElementosCola(cola);
-        for (int i = 0; i < clientesEnCola.length; i++) {
-            Cliente cliente = clientesEnCola[i];
-            clientesActuales.add(cliente);
-            actualizarOCrearCliente(cliente, posXFunction.applyAsDouble(i), posYFunction.applyAsDouble(i));
+        if (vista != null) {
+            vista.setMsPorMinuto(velocidadActual);
         }
     }
 
-    private void actualizarOCrearCliente(Cliente cliente, double posX, double posY) {
-        ClienteGrafico clienteGrafico = buscarClienteGraficoEnUso(cliente);
-
-        if (clienteGrafico != null) {
-            actualizarPosicionCliente(clienteGrafico, posX, posY);
-        } else {
-            asignarNuevoClienteGrafico(cliente, posX, posY);
-        }
+    private double minutosPorSegundo() {
+        return velocidadActual == 0 ? HiloSimulacion.VELOCIDAD_MAXIMA : 1000.0 / velocidadActual;
     }
 
-    private ClienteGrafico buscarClienteGraficoEnUso(Cliente cliente) {
-        if (clientesGraficosEnUso.estaVacia()) return null;
-
-        ClienteGrafico encontrado = null;
-
-        // Usar cola temporal para búsqueda
-        while (!clientesGraficosEnUso.estaVacia()) {
-            ClienteGrafico cg = clientesGraficosEnUso.eliminar();
-
-            if (encontrado == null && cliente.equals(cg.getCliente())) {
-                encontrado = cg;
-                // No lo insertamos en temp, lo manejamos aparte
-            } else {
-                clientesGraficosTemp.insertar(cg);
-            }
-        }
-
-        // Restaurar cola de en uso
-        while (!clientesGraficosTemp.estaVacia()) {
-            clientesGraficosEnUso.insertar(clientesGraficosTemp.eliminar());
+    private void actualizarInterfaz(InstantaneaSimulacion instantanea) {
+        ultimaInstantanea = instantanea;
+
+        int tiempo = (int) instantanea.getTiempo();
+        int duracion = instantanea.getTiempoSimulacion();
+        lblTiempo.setText(String.format("Tiempo: %d/%d min (%.1f%%)", tiempo, duracion, (tiempo * 100.0 / duracion)));
+        progreso.setProgress((double) tiempo / duracion);
+        if (!sldPosicion.isValueChanging()) {
+            moviendoPosicion = true;
+            sldPosicion.setValue(instantanea.getTiempo());
+            moviendoPosicion = false;
         }
 
-        // Si encontramos, lo insertamos al final
-        if (encontrado != null) {
-            clientesGraficosEnUso.insertar(encontrado);
+        vista.iniciarCuadro();
+        actualizarClientes(instantanea);
+        for (int i = 0; i < cajaX.length; i++) {
+            vista.dibujarCaja(i, instantanea.cajaAbierta(i), instantanea.getAtendidos(i));
         }
+        vista.terminarCuadro();
 
-        return encontrado;
+        lblClientesAtendidos.setText(String.format("Clientes: %d", instantanea.getClientesAtendidos()));
+        lblEsperaPromedio.setText(String.format("Espera Prom: %.2f min", instantanea.getEsperaPromedio()));
+        lblCajasAbiertas.setText(String.format("Cajas: %d/%d",
+                instantanea.getCajasAbiertas(), instantanea.getNumeroCajas()));
     }
 
-    private void actualizarPosicionCliente(ClienteGrafico clienteGrafico, double posX, double posY) {
-        if (Math.abs(clienteGrafico.getPosX() - posX) > 5 || Math.abs(clienteGrafico.getPosY() - posY) > 5) {
-            double duracion = 0.3 * velocidadActual;
-            clienteGrafico.moverA(posX, posY, duracion);
-        }
-        clienteGrafico.toFront();
-        clienteGrafico.actualizarImagen();
-    }
+    private void actualizarClientes(InstantaneaSimulacion instantanea) {
+        int filaGeneral = cajaX.length;
 
-    private void asignarNuevoClienteGrafico(Cliente cliente, double posX, double posY) {
-        if (!clientesGraficosLibres.estaVacia()) {
-            ClienteGrafico nuevoClienteGrafico = clientesGraficosLibres.eliminar();
-            nuevoClienteGrafico.setCliente(cliente);
-            nuevoClienteGrafico.setVisible(true);
-            nuevoClienteGrafico.moverA(posX, posY, 0.5 * velocidadActual);
-            nuevoClienteGrafico.toFront();
-            nuevoClienteGrafico.actualizarImagen();
-            clientesGraficosEnUso.insertar(nuevoClienteGrafico);
+        // Fila general (vacía con filas múltiples)
+        int tamanioFila = instantanea.getTamanioFilaGeneral();
+        int visibles = Math.min(tamanioFila, MAX_VISIBLES_FILA_GENERAL);
+        for (int pos = 0; pos < visibles; pos++) {
+            int id = instantanea.getClienteEnFilaGeneral(pos);
+            vista.dibujarCliente(filaGeneral, id, false, FILA_INICIO_X + (pos * ESPACIO_ENTRE_CLIENTES), FILA_Y);
         }
-    }
-
-    private void limpiarClientesTerminados(Set<Cliente> clientesActuales) {
-        Cola<ClienteGrafico> nuevosEnUso = new Cola<>(MAX_CLIENTES_GRAFICOS);
-
-        while (!clientesGraficosEnUso.estaVacia()) {
-            ClienteGrafico clienteGrafico = clientesGraficosEnUso.eliminar();
-            Cliente cliente = clienteGrafico.getCliente();
+        vista.dibujarInsignia(filaGeneral, tamanioFila - visibles,
+                FILA_INICIO_X + (visibles * ESPACIO_ENTRE_CLIENTES), FILA_Y);
 
-            if (cliente != null && clientesActuales.contains(cliente)) {
-                nuevosEnUso.insertar(clienteGrafico);
-            } else {
-                clienteGrafico.setCliente(null);
-                clienteGrafico.setVisible(false);
-                clientesGraficosLibres.insertar(clienteGrafico);
-            }
-        }
-
-        clientesGraficosEnUso = nuevosEnUso;
+        // Cajas individuales
+        actualizarClientesEnCajas(instantanea);
     }
 
-    private Cliente[] getElementosCola(Cola<Cliente> cola) {
-        int size = cola.tamanio();
-        if (size == 0) {
-            return new Cliente[0];
-        }
+    private void actualizarClientesEnCajas(InstantaneaSimulacion instantanea) {
+        for (int i = 0; i < Math.min(instantanea.getNumeroCajas(), cajaX.length); i++) {
+            if (!instantanea.cajaAbierta(i)) {
+                vista.dibujarInsignia(i, 0, 0, 0);
+                continue;
+            }
 
-        Cliente[] arreglo = new Cliente[size];
-        Cola<Cliente> temporal = new Cola<>(100);
+            double filaX = cajaX[i] + CajaGrafica.ANCHO;
+            double centroX = cajaX[i] + CajaGrafica.ANCHO / 2;
+            double centroY = cajaY[i] + CajaGrafica.ALTO / 2;
 
-        for (int i = 0; i < size; i++) {
-            Cliente cliente = cola.eliminar();
-            arreglo[i] = cliente;
-            temporal.insertar(cliente);
-        }
+            // Clientes en cola
+            int tamanioFila = instantanea.getTamanioFila(i);
+            int visibles = Math.min(tamanioFila, MAX_VISIBLES_FILA_CAJA);
+            for (int pos = 0; pos < visibles; pos++) {
+                int id = instantanea.getClienteEnFila(i, pos);
+                vista.dibujarCliente(i, id, false, filaX + (pos * ESPACIO_ENTRE_CLIENTES), centroY);
+            }
+            vista.dibujarInsignia(i, tamanioFila - visibles,
+                    filaX + (visibles * ESPACIO_ENTRE_CLIENTES), centroY);
 
-        for (int i = 0; i < size; i++) {
-            cola.insertar(temporal.eliminar());
+            // Cliente siendo atendido
+            int idAtendiendo = instantanea.getClientePagando(i);
+            if (idAtendiendo != 0) {
+                double offsetX = instantanea.esFilaUnica() ? 40 : 50;
+                vista.dibujarCliente(i, idAtendiendo, true, centroX - offsetX, centroY);
+            }
         }
-
-        return arreglo;
     }
 
     private void mostrarResultadosFinales() {
@@ -425,16 +379,16 @@ public class HelloController {
         alert.setTitle("Simulación Completada");
         alert.setHeaderText("La simulación ha terminado");
 
-        Estadistica stats = simulacion.getEstadisticas();
+        InstantaneaSimulacion fin = ultimaInstantanea;
         String contenido = String.format(
                 "Clientes atendidos: %d\n" +
                         "Tiempo espera promedio: %.2f min\n" +
                         "Tiempo pago promedio: %.2f min\n" +
                         "Tiempo total promedio: %.2f min",
-                stats.getTotalClientesAtendidos(),
-                stats.getTiempoPromedioEspera(),
-                stats.getTiempoPromedioPago(),
-                stats.getTiempoPromedioTotal()
+                fin.getClientesAtendidos(),
+                fin.getEsperaPromedio(),
+                fin.getPagoPromedio(),
+                fin.getTotalPromedio()
         );
 
         alert.setContentText(contenido);
@@ -0,0 +1,329 @@
+package costco.sim;
+
+import costco.sim.Simulaciones.GrabadorEventos;
+import costco.sim.Simulaciones.ResultadoReplicas;
+import costco.sim.Simulaciones.ServicioReplicas;
+import costco.sim.Simulaciones.Simulacion;
+import costco.sim.Simulaciones.SimulacionFilaUnica;
+import costco.sim.Simulaciones.SimulacionMultiplesFilas;
+import costco.sim.logica.Escenario;
+import costco.sim.logica.DistribucionServicio;
+import costco.sim.logica.IntervaloConfianza;
+import costco.sim.logica.LlegadasEnGrupos;
+import costco.sim.logica.LlegadasPoissonPorTramos;
+import costco.sim.logica.ProcesoLlegadas;
+import costco.sim.logica.ServicioEmpirico;
+import costco.sim.logica.ServicioGamma;
+import costco.sim.logica.ServicioLognormal;
+import costco.sim.logica.ServicioUniforme;
+import costco.sim.logica.TipoCaja;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Punto de entrada sin interfaz gráfica: corre N jornadas seguidas tan rápido
+ * como lo permita el CPU, sin cargar JavaFX.
+ * Con --hilos las réplicas se reparten entre varios núcleos y se imprime
+ * solo el reporte combinado con intervalos de confianza.
+ * Con --estrategia=ambas se comparan las dos estrategias con las mismas semillas.
+ * Con --columnar los clientes terminados se guardan en un AlmacenClientes y
+ * sus objetos se reutilizan, para corridas con millones de clientes.
+ * Con --grabar cada transición de la jornada se guarda en un archivo binario
+ * (ver GrabadorEventos); con varias réplicas se agrega ".N" al nombre.
+ * --mapear escribe ese archivo mapeado en memoria.
+ * Con --tasas las llegadas son de Poisson con una tasa que cambia en el día,
+ * dada como minuto:clientes-por-minuto separados por comas (p. ej. 0:1,180:3,300:1.2);
+ * con --grupo=M los clientes llegan en grupos de tamaño medio M.
+ * --servicio cambia la distribución de los tiempos de pago: uniforme:MIN:MAX,
+ * lognormal:MEDIA:DESV, gamma:FORMA:ESCALA o empirico:archivo (un tiempo por renglón,
+ * opcionalmente con su peso). --express=N,DIST hace rápidas a las primeras N cajas.
+ * Con --hilos-cajas=H y múltiples filas, los pagos de cada jornada se reparten
+ * entre H hilos (útil con cientos de cajas); el reporte no cambia.
+ * Con una sola réplica se usa --semilla tal cual, para poder repetir esa jornada;
+ * con varias, la semilla de cada réplica se deriva de ella.
+ *
+ * Uso: LauncherBatch --estrategia=unica|multiples|ambas [--replicas=N] [--semilla=S]
+ *                    [--duracion=MIN] [--cajas=C] [--capacidad-cola=Q] [--hilos=H]
+ *                    [--columnar] [--grabar=archivo.bin [--mapear]] [--tasas=MIN:TASA,...]
+ *                    [--grupo=M] [--servicio=DIST] [--express=N,DIST] [--hilos-cajas=H]
+ *                    [--salida=archivo.txt]
+ * Una capacidad de cola de 0 deja las filas sin límite.
+ */
+public class LauncherBatch {
+
+    private static final String USO =
+            "Uso: LauncherBatch --estrategia=unica|multiples|ambas [--replicas=N] [--semilla=S] " +
+            "[--duracion=MIN] [--cajas=C] [--capacidad-cola=Q] [--hilos=H] [--columnar] " +
+            "[--grabar=archivo.bin [--mapear]] [--tasas=MIN:TASA,...] [--grupo=M] " +
+            "[--servicio=DIST] [--express=N,DIST] [--hilos-cajas=H] [--salida=archivo.txt]\n" +
+            "Con varias réplicas la semilla de cada una se deriva de --semilla.";
+
+    /**
+     * Cómo se arma cada simulación además de su estrategia, semilla y escenario
+     */
+    record OpcionesSimulacion(boolean columnar, ForkJoinPool poolCajas) {
+    }
+
+    public static void main(String[] args) {
+        String estrategia = null;
+        int replicas = 1;
+        long semilla = System.nanoTime();
+        Escenario base = Escenario.porDefecto();
+        int duracion = base.tiempoSimulacion();
+        int numCajas = base.numCajas();
+        int capacidadCola = base.capacidadCola();
+        int hilos = 0;
+        String salida = null;
+        String grabar = null;
+        String tasas = null;
+        double grupo = 1;
+        String servicio = null;
+        String express = null;
+        int hilosCajas = 0;
+        boolean columnar = false;
+        boolean mapear = false;
+        Escenario escenario;
+
+        try {
+            for (String arg : args) {
+                if (arg.equals("--columnar")) {
+                    columnar = true;
+                    continue;
+                }
+                if (arg.equals("--mapear")) {
+                    mapear = true;
+                    continue;
+                }
+
+                String[] partes = arg.split("=", 2);
+                if (partes.length != 2) {
+                    throw new IllegalArgumentException("Argumento inválido: " + arg);
+                }
+
+                switch (partes[0]) {
+                    case "--estrategia" -> estrategia = partes[1];
+                    case "--replicas" -> replicas = Integer.parseInt(partes[1]);
+                    case "--semilla" -> semilla = Long.parseLong(partes[1]);
+                    case "--duracion" -> duracion = Integer.parseInt(partes[1]);
+                    case "--cajas" -> numCajas = Integer.parseInt(partes[1]);
+                    case "--capacidad-cola" -> capacidadCola = Integer.parseInt(partes[1]);
+                    case "--hilos" -> hilos = Integer.parseInt(partes[1]);
+                    case "--salida" -> salida = partes[1];
+                    case "--grabar" -> grabar = partes[1];
+                    case "--tasas" -> tasas = partes[1];
+                    case "--grupo" -> grupo = Double.parseDouble(partes[1]);
+                    case "--servicio" -> servicio = partes[1];
+                    case "--express" -> express = partes[1];
+                    case "--hilos-cajas" -> hilosCajas = Integer.parseInt(partes[1]);
+                    default -> throw new IllegalArgumentException("Argumento desconocido: " + partes[0]);
+                }
+            }
+
+            if (!"unica".equals(estrategia) && !"multiples".equals(estrategia) && !"ambas".equals(estrategia)) {
+                throw new IllegalArgumentException("Estrategia inválida: " + estrategia);
+            }
+            if (replicas < 1) {
+                throw new IllegalArgumentException("Las réplicas deben ser positivas");
+            }
+            if (hilos < 0) {
+                throw new IllegalArgumentException("Los hilos no pueden ser negativos");
+            }
+            if (hilosCajas < 0) {
+                throw new IllegalArgumentException("Los hilos por caja no pueden ser negativos");
+            }
+            if (grabar != null && (hilos > 0 || "ambas".equals(estrategia))) {
+                throw new IllegalArgumentException("--grabar solo funciona con una estrategia y sin --hilos");
+            }
+            if (mapear && grabar == null) {
+                throw new IllegalArgumentException("--mapear requiere --grabar");
+            }
+            ProcesoLlegadas llegadas = tasas != null ? leerTasas(tasas) : base.llegadas();
+            if (grupo != 1) {
+                llegadas = new LlegadasEnGrupos(llegadas, grupo);
+            }
+            List<TipoCaja> tipos = new ArrayList<>();
+            TipoCaja normal = servicio != null ? TipoCaja.normal(leerServicio(servicio)) : base.tipoCaja(1);
+            if (express != null) {
+                String[] partesExpress = express.split(",", 2);
+                if (partesExpress.length != 2) {
+                    throw new IllegalArgumentException("Formato de --express: N,DIST");
+                }
+                TipoCaja rapida = new TipoCaja("rapida", leerServicio(partesExpress[1]));
+                for (int i = Integer.parseInt(partesExpress[0]); i > 0; i--) {
+                    tipos.add(rapida);
+                }
+            }
+            tipos.add(normal);
+
+            escenario = base.conLlegadas(llegadas)
+                    .conTiposCaja(tipos)
+                    .conTiempoSimulacion(duracion)
+                    .conNumCajas(numCajas)
+                    .conCapacidades(capacidadCola, capacidadCola > 0 ? base.capacidadFilaGeneral() : 0);
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+            System.err.println(USO);
+            System.exit(1);
+            return;
+        }
+
+        ForkJoinPool poolCajas = hilosCajas > 0 ? new ForkJoinPool(hilosCajas) : null;
+        OpcionesSimulacion opciones = new OpcionesSimulacion(columnar, poolCajas);
+
+        try (PrintWriter reporte = salida != null
+                ? new PrintWriter(new FileWriter(salida))
+                : new PrintWriter(System.out)) {
+
+            if ("ambas".equals(estrategia)) {
+                compararEstrategias(reporte, semilla, escenario, replicas, Math.max(hilos, 1), opciones);
+                return;
+            }
+
+            if (hilos > 0) {
+                ejecutarEnParalelo(reporte, estrategia, semilla, escenario, replicas, hilos, opciones);
+                return;
+            }
+
+            long inicio = System.nanoTime();
+            long[] semillas = ServicioReplicas.derivarSemillas(semilla, replicas);
+            double sumaEspera = 0;
+            long totalClientes = 0;
+
+            for (int i = 0; i < replicas; i++) {
+                Simulacion simulacion = crearSimulacion(estrategia, semillas[i], escenario, opciones);
+                if (grabar != null) {
+                    String archivo = replicas > 1 ? grabar + "." + (i + 1) : grabar;
+                    try (GrabadorEventos grabador = new GrabadorEventos(Path.of(archivo), mapear)) {
+                        grabador.grabar(simulacion);
+                        simulacion.ejecutarCompleta();
+                    }
+                } else {
+                    simulacion.ejecutarCompleta();
+                }
+
+                reporte.printf("=== Réplica %d (semilla %d) ===%n", i + 1, semillas[i]);
+                reporte.print(simulacion.getEstadisticas().generarReporteCompleto(
+                        simulacion.getCajas(), simulacion.getTiempoActualExacto()));
+
+                sumaEspera += simulacion.getEstadisticas().getTiempoPromedioEspera();
+                totalClientes += simulacion.getEstadisticas().getTotalClientesAtendidos();
+            }
+
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            reporte.flush();
+            System.out.printf("%d réplicas (%s) en %.2f s | clientes: %d | espera promedio: %.2f min%n",
+                    replicas, estrategia, segundos, totalClientes, sumaEspera / replicas);
+            System.out.flush();
+        } catch (IOException e) {
+            System.err.println("ERROR: No se pudo escribir el reporte o la grabación: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            if (poolCajas != null) {
+                poolCajas.shutdown();
+            }
+        }
+    }
+
+    private static void ejecutarEnParalelo(PrintWriter reporte, String estrategia, long semilla,
+                                           Escenario escenario, int replicas, int hilos,
+                                           OpcionesSimulacion opciones) {
+        ServicioReplicas servicio = new ServicioReplicas(hilos);
+        try {
+            ResultadoReplicas resultado = servicio.ejecutar(
+                    s -> crearSimulacion(estrategia, s, escenario, opciones), semilla, replicas);
+
+            reporte.print(resultado.generarReporte());
+            reporte.flush();
+            System.out.printf("%d réplicas (%s) en %.2f s con %d hilos%n",
+                    replicas, estrategia, resultado.getSegundos(), hilos);
+            System.out.flush();
+        } finally {
+            servicio.cerrar();
+        }
+    }
+
+    private static void compararEstrategias(PrintWriter reporte, long semilla, Escenario escenario,
+                                            int replicas, int hilos, OpcionesSimulacion opciones) {
+        ServicioReplicas servicio = new ServicioReplicas(hilos);
+        try {
+            IntervaloConfianza diferencia = servicio.comparar(
+                    s -> crearSimulacion("unica", s, escenario, opciones),
+                    s -> crearSimulacion("multiples", s, escenario, opciones),
+                    semilla, replicas);
+
+            reporte.printf("Diferencia de espera promedio (única - múltiples), IC 95%%: %s min%n", diferencia);
+            reporte.flush();
+        } finally {
+            servicio.cerrar();
+        }
+    }
+
+    /**
+     * "0:1,180:3,300:1.2" -> tasa 1 en el minuto 0, 3 en el 180 y 1.2 desde el 300
+     */
+    private static ProcesoLlegadas leerTasas(String texto) {
+        String[] tramos = texto.split(",");
+        double[] minutos = new double[tramos.length];
+        double[] valores = new double[tramos.length];
+        for (int i = 0; i < tramos.length; i++) {
+            String[] par = tramos[i].split(":");
+            if (par.length != 2) {
+                throw new IllegalArgumentException("Tramo de tasas inválido: " + tramos[i]);
+            }
+            minutos[i] = Double.parseDouble(par[0]);
+            valores[i] = Double.parseDouble(par[1]);
+        }
+        return new LlegadasPoissonPorTramos(minutos, valores);
+    }
+
+    /**
+     * "uniforme:3:5", "lognormal:4:1.5", "gamma:4:1" o "empirico:tiempos.txt"
+     */
+    private static DistribucionServicio leerServicio(String texto) {
+        String[] partes = texto.split(":", 2);
+        if (partes.length != 2) {
+            throw new IllegalArgumentException("Distribución inválida: " + texto);
+        }
+        if (partes[0].equals("empirico")) {
+            try {
+                return ServicioEmpirico.desdeArchivo(Path.of(partes[1]));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("No se pudo leer " + partes[1] + ": " + e.getMessage());
+            }
+        }
+
+        String[] parametros = partes[1].split(":");
+        if (parametros.length != 2) {
+            throw new IllegalArgumentException("Distribución inválida: " + texto);
+        }
+        double a = Double.parseDouble(parametros[0]);
+        double b = Double.parseDouble(parametros[1]);
+        return switch (partes[0]) {
+            case "uniforme" -> new ServicioUniforme(a, b);
+            case "lognormal" -> new ServicioLognormal(a, b);
+            case "gamma" -> new ServicioGamma(a, b);
+            default -> throw new IllegalArgumentException("Distribución desconocida: " + partes[0]);
+        };
+    }
+
+    static Simulacion crearSimulacion(String estrategia, long semilla, Escenario escenario,
+                                      OpcionesSimulacion opciones) {
+        Simulacion simulacion = "unica".equals(estrategia)
+                ? new SimulacionFilaUnica(semilla, escenario)
+                : new SimulacionMultiplesFilas(semilla, escenario);
+
+        if (opciones.columnar()) {
+            simulacion.usarAlmacenColumnar(escenario.tiempoSimulacion() * 2);
+        }
+        if (opciones.poolCajas() != null) {
+            simulacion.usarCajasEnParalelo(opciones.poolCajas());
+        }
+        return simulacion;
+    }
+}
@@ -0,0 +1,25 @@
+package costco.sim.Simulaciones;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Intercambio sin bloqueos de una sola casilla entre el hilo de la simulación
+ * y el de la interfaz. Publicar reemplaza la instantánea anterior si nadie
+ * la tomó, así el que dibuja siempre recibe la más reciente y el que simula
+ * nunca espera.
+ */
+public class BuzonInstantaneas {
+
+    private final AtomicReference<InstantaneaSimulacion> casilla = new AtomicReference<>();
+
+    public void publicar(InstantaneaSimulacion instantanea) {
+        casilla.set(instantanea);
+    }
+
+    /**
+     * La última instantánea publicada, o null si no hay nada nuevo desde la última vez
+     */
+    public InstantaneaSimulacion tomar() {
+        return casilla.getAndSet(null);
+    }
+}
@@ -0,0 +1,94 @@
+package costco.sim.Simulaciones;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conjunto de índices de 0 a n-1 guardado como bits en varios niveles:
+ * cada bit de un nivel indica si la palabra correspondiente del nivel de
+ * abajo tiene algún índice. Agregar, quitar y consultar el menor o el mayor
+ * cuestan O(log64 n) sin crear objetos.
+ */
+class ConjuntoIndices {
+
+    // niveles[0] tiene un bit por índice; el último tiene una sola palabra
+    private final long[][] niveles;
+
+    ConjuntoIndices(int n) {
+        List<long[]> lista = new ArrayList<>();
+        int cantidad = Math.max(n, 1);
+        do {
+            int palabras = (cantidad + 63) >>> 6;
+            lista.add(new long[palabras]);
+            cantidad = palabras;
+        } while (cantidad > 1);
+        this.niveles = lista.toArray(new long[0][]);
+    }
+
+    void poner(int i, boolean presente) {
+        if (presente) {
+            agregar(i);
+        } else {
+            quitar(i);
+        }
+    }
+
+    void agregar(int i) {
+        for (long[] nivel : niveles) {
+            int palabra = i >>> 6;
+            boolean estabaVacia = nivel[palabra] == 0;
+            nivel[palabra] |= 1L << i;
+            if (!estabaVacia) {
+                return;
+            }
+            i = palabra;
+        }
+    }
+
+    void quitar(int i) {
+        for (long[] nivel : niveles) {
+            int palabra = i >>> 6;
+            long antes = nivel[palabra];
+            nivel[palabra] = antes & ~(1L << i);
+            // Solo se sube si la palabra se acaba de quedar vacía
+            if (antes == 0 || nivel[palabra] != 0) {
+                return;
+            }
+            i = palabra;
+        }
+    }
+
+    boolean contiene(int i) {
+        return (niveles[0][i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Menor índice del conjunto, o -1 si está vacío
+     */
+    int primero() {
+        int k = niveles.length - 1;
+        if (niveles[k][0] == 0) {
+            return -1;
+        }
+        int i = 0;
+        for (; k >= 0; k--) {
+            i = (i << 6) + Long.numberOfTrailingZeros(niveles[k][i]);
+        }
+        return i;
+    }
+
+    /**
+     * Mayor índice del conjunto, o -1 si está vacío
+     */
+    int ultimo() {
+        int k = niveles.length - 1;
+        if (niveles[k][0] == 0) {
+            return -1;
+        }
+        int i = 0;
+        for (; k >= 0; k--) {
+            i = (i << 6) + 63 - Long.numberOfLeadingZeros(niveles[k][i]);
+        }
+        return i;
+    }
+}
@@ -0,0 +1,56 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Caja;
+
+/**
+ * Suceso futuro de la simulación con su marca de tiempo continua.
+ * Los eventos con el mismo tiempo se atienden en el orden en que se programaron.
+ */
+public class Evento implements Comparable<Evento> {
+
+    private final double tiempo;
+    private final TipoEvento tipo;
+    private final Caja caja;
+    private final long secuencia;
+
+    public Evento(double tiempo, TipoEvento tipo, Caja caja, long secuencia) {
+        this.tiempo = tiempo;
+        this.tipo = tipo;
+        this.caja = caja;
+        this.secuencia = secuencia;
+    }
+
+    public double getTiempo() {
+        return tiempo;
+    }
+
+    public TipoEvento getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Caja a la que pertenece el evento, null si es de toda la tienda
+     */
+    public Caja getCaja() {
+        return caja;
+    }
+
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    @Override
+    public int compareTo(Evento otro) {
+        int porTiempo = Double.compare(tiempo, otro.tiempo);
+        if (porTiempo != 0) {
+            return porTiempo;
+        }
+        return Long.compare(secuencia, otro.secuencia);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Evento[%s, t=%.3f%s]",
+                tipo, tiempo, caja != null ? ", caja=" + caja.getNumeroCaja() : "");
+    }
+}
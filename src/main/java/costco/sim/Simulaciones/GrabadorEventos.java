@@ -0,0 +1,186 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Caja;
+import costco.sim.logica.RegistroEventos;
+import costco.sim.logica.TipoRegistro;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Guarda cada transición de una jornada en un archivo binario de registros
+ * de ancho fijo, sin crear objetos por evento.
+ *
+ * Formato (little endian):
+ * encabezado de 32 bytes: magia int, versión short, tamaño de registro short,
+ * semilla long, cajas int, duración int, fila única byte y relleno;
+ * después un registro de 16 bytes por transición: tiempo double, id del cliente int,
+ * número de caja short sin signo (0 = sin caja), tipo byte (ordinal de TipoRegistro + 1) y relleno.
+ * Un tipo 0 marca el final (un archivo mapeado que no se cerró queda con ceros al final).
+ *
+ * Escribe por un FileChannel con un buffer directo de 64 KB, o mapeando el
+ * archivo por bloques para corridas muy grandes. Cada bloque se mapea en su
+ * propia Arena, que se cierra al pasar al siguiente: así el archivo nunca se
+ * recorta mientras sigue mapeado.
+ */
+public class GrabadorEventos implements RegistroEventos, AutoCloseable {
+
+    public static final int MAGIA = 0x43534556; // "CSEV"
+    public static final short VERSION = 1;
+    public static final int TAMANIO_ENCABEZADO = 32;
+    public static final int TAMANIO_REGISTRO = 16;
+    /** El número de caja se guarda como short sin signo */
+    public static final int MAXIMO_CAJAS = 0xFFFF;
+
+    private static final int TAMANIO_BUFFER = 1 << 16;
+    private static final long TAMANIO_BLOQUE_MAPEADO = 16L << 20;
+
+    private final FileChannel canal;
+    private final boolean mapeado;
+    private ByteBuffer buffer;
+    private Arena arenaBloque;
+    private MemorySegment bloque;
+    private long inicioBloque; // posición en el archivo del bloque mapeado actual
+    private long registros;
+    private Simulacion simulacion;
+
+    /**
+     * Crea (o vacía) el archivo; con mapeado = true escribe sobre bloques
+     * mapeados en memoria en lugar de usar un buffer
+     */
+    public GrabadorEventos(Path archivo, boolean mapeado) throws IOException {
+        this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.mapeado = mapeado;
+        if (mapeado) {
+            mapearBloque(0);
+        } else {
+            this.buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Empieza a grabar la jornada de la simulación, que debe estar en su minuto 0.
+     * Las cajas que ya están abiertas se graban como aperturas al tiempo 0.
+     */
+    public void grabar(Simulacion simulacion) {
+        if (this.simulacion != null) {
+            throw new IllegalStateException("El grabador ya tiene una simulación");
+        }
+        if (simulacion.getTiempoActualExacto() > 0) {
+            throw new IllegalArgumentException("La simulación ya empezó");
+        }
+        if (simulacion.getCajas().size() > MAXIMO_CAJAS) {
+            throw new IllegalArgumentException("El registro de eventos admite hasta " + MAXIMO_CAJAS + " cajas");
+        }
+        this.simulacion = simulacion;
+
+        asegurarEspacio(TAMANIO_ENCABEZADO);
+        int inicio = buffer.position();
+        buffer.putInt(MAGIA)
+                .putShort(VERSION)
+                .putShort((short) TAMANIO_REGISTRO)
+                .putLong(simulacion.getSemilla())
+                .putInt(simulacion.getCajas().size())
+                .putInt(simulacion.getTiempoSimulacion())
+                .put((byte) (simulacion.esFilaUnica() ? 1 : 0));
+        buffer.position(inicio + TAMANIO_ENCABEZADO);
+
+        for (Caja caja : simulacion.getCajas()) {
+            if (caja.estaAbierta()) {
+                registrar(TipoRegistro.APERTURA, caja.getNumeroCaja(), 0);
+            }
+        }
+        simulacion.setRegistro(this);
+    }
+
+    @Override
+    public void registrar(TipoRegistro tipo, int numeroCaja, int idCliente) {
+        asegurarEspacio(TAMANIO_REGISTRO);
+        buffer.putDouble(simulacion.getTiempoActualExacto())
+                .putInt(idCliente)
+                .putShort((short) numeroCaja)
+                .put((byte) (tipo.ordinal() + 1))
+                .put((byte) 0);
+        registros++;
+    }
+
+    public long getRegistros() {
+        return registros;
+    }
+
+    private void asegurarEspacio(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        try {
+            if (mapeado) {
+                mapearBloque(inicioBloque + buffer.position());
+            } else {
+                vaciar();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void mapearBloque(long inicio) throws IOException {
+        soltarBloque();
+        this.inicioBloque = inicio;
+        this.arenaBloque = Arena.ofShared();
+        this.bloque = canal.map(FileChannel.MapMode.READ_WRITE, inicio, TAMANIO_BLOQUE_MAPEADO, arenaBloque);
+        this.buffer = bloque.asByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Baja a disco el bloque mapeado actual y lo desmapea
+     */
+    private void soltarBloque() {
+        if (arenaBloque == null) {
+            return;
+        }
+        bloque.force();
+        buffer = null;
+        bloque = null;
+        arenaBloque.close();
+        arenaBloque = null;
+    }
+
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Escribe lo pendiente y cierra el archivo; la simulación deja de registrar
+     */
+    @Override
+    public void close() throws IOException {
+        if (simulacion != null) {
+            simulacion.setRegistro(null);
+        }
+        try {
+            if (mapeado && arenaBloque != null) {
+                // El mapeo agranda el archivo al bloque completo; se recorta a lo
+                // escrito después de desmapearlo
+                long fin = inicioBloque + buffer.position();
+                soltarBloque();
+                canal.truncate(fin);
+            } else if (!mapeado) {
+                vaciar();
+            }
+        } finally {
+            canal.close();
+        }
+    }
+}
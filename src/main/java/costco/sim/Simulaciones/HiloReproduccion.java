@@ -0,0 +1,104 @@
+package costco.sim.Simulaciones;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Como HiloSimulacion, pero mueve un ReproductorEventos en lugar de simular:
+ * el tiempo avanza (o retrocede, en reversa) según la velocidad y se publica
+ * una InstantaneaSimulacion en el mismo buzón que usa la interfaz en vivo.
+ * Al llegar a un extremo de la jornada se queda ahí hasta que se busque otro
+ * minuto o se cambie de dirección.
+ */
+public class HiloReproduccion implements Runnable {
+
+    private static final double MAX_MINUTOS_POR_PASO = 120;
+    private static final long PAUSA_ENTRE_PASOS_NS = 4_000_000;  // 4 ms
+    private static final long SIN_BUSQUEDA = Double.doubleToRawLongBits(Double.NaN);
+
+    private final ReproductorEventos reproductor;
+    private final BuzonInstantaneas buzon;
+    private final Thread hilo;
+
+    private volatile double minutosPorSegundo;
+    private volatile boolean pausado;
+    private volatile boolean reversa;
+    private volatile boolean detenido;
+    // Minuto pedido por la interfaz (bits de un double), NaN si no hay
+    private final AtomicLong busqueda = new AtomicLong(SIN_BUSQUEDA);
+
+    public HiloReproduccion(ReproductorEventos reproductor, double minutosPorSegundo, BuzonInstantaneas buzon) {
+        this.reproductor = reproductor;
+        this.minutosPorSegundo = minutosPorSegundo;
+        this.buzon = buzon;
+        this.hilo = new Thread(this, "reproduccion");
+        this.hilo.setDaemon(true);
+    }
+
+    public void iniciar() {
+        hilo.start();
+    }
+
+    public void detener() {
+        detenido = true;
+        LockSupport.unpark(hilo);
+    }
+
+    @Override
+    public void run() {
+        long anterior = System.nanoTime();
+        buzon.publicar(reproductor.instantanea());
+
+        while (!detenido) {
+            LockSupport.parkNanos(PAUSA_ENTRE_PASOS_NS);
+            long ahora = System.nanoTime();
+            double segundos = (ahora - anterior) / 1e9;
+            anterior = ahora;
+
+            double buscado = Double.longBitsToDouble(busqueda.getAndSet(SIN_BUSQUEDA));
+            if (!Double.isNaN(buscado)) {
+                reproductor.irA(buscado);
+                buzon.publicar(reproductor.instantanea());
+                continue;
+            }
+
+            if (pausado || detenido) {
+                continue;
+            }
+
+            double tiempo = reproductor.getTiempo();
+            if (reversa ? tiempo <= 0 : tiempo >= reproductor.getTiempoFinal()) {
+                continue;
+            }
+
+            // En velocidad máxima (infinita) se salta directo al tope por paso:
+            // infinito por 0 segundos daría NaN
+            double minutos = minutosPorSegundo == HiloSimulacion.VELOCIDAD_MAXIMA
+                    ? MAX_MINUTOS_POR_PASO
+                    : Math.min(segundos * minutosPorSegundo, MAX_MINUTOS_POR_PASO);
+            reproductor.irA(reversa ? tiempo - minutos : tiempo + minutos);
+            buzon.publicar(reproductor.instantanea());
+        }
+    }
+
+    /**
+     * Salta al minuto dado en el siguiente paso
+     */
+    public void buscar(double minuto) {
+        busqueda.set(Double.doubleToRawLongBits(minuto));
+        LockSupport.unpark(hilo);
+    }
+
+    public void setMinutosPorSegundo(double minutosPorSegundo) {
+        this.minutosPorSegundo = minutosPorSegundo;
+        LockSupport.unpark(hilo);
+    }
+
+    public void setPausado(boolean pausado) {
+        this.pausado = pausado;
+    }
+
+    public void setReversa(boolean reversa) {
+        this.reversa = reversa;
+    }
+}
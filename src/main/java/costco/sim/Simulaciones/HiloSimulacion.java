@@ -0,0 +1,87 @@
+package costco.sim.Simulaciones;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Corre una simulación en su propio hilo y publica una InstantaneaSimulacion
+ * después de cada paso. Solo este hilo toca la simulación una vez iniciado;
+ * la interfaz dibuja a partir de las instantáneas del buzón.
+ * El tiempo simulado sigue al reloj real según la velocidad elegida
+ * (con un tope por paso); en velocidad máxima avanza minuto a minuto sin pausas.
+ */
+public class HiloSimulacion implements Runnable {
+
+    public static final double VELOCIDAD_MAXIMA = Double.POSITIVE_INFINITY;
+
+    private static final double MAX_MINUTOS_POR_PASO = 120;
+    private static final long PAUSA_ENTRE_PASOS_NS = 4_000_000;  // 4 ms
+
+    private final Simulacion simulacion;
+    private final BuzonInstantaneas buzon;
+    private final Thread hilo;
+
+    private volatile double minutosPorSegundo;
+    private volatile boolean pausado;
+    private volatile boolean detenido;
+
+    public HiloSimulacion(Simulacion simulacion, double minutosPorSegundo, BuzonInstantaneas buzon) {
+        this.simulacion = simulacion;
+        this.minutosPorSegundo = minutosPorSegundo;
+        this.buzon = buzon;
+        this.hilo = new Thread(this, "simulacion");
+        this.hilo.setDaemon(true);
+    }
+
+    public void iniciar() {
+        hilo.start();
+    }
+
+    /**
+     * Pide al hilo que termine; la simulación queda donde iba
+     */
+    public void detener() {
+        detenido = true;
+        LockSupport.unpark(hilo);
+    }
+
+    @Override
+    public void run() {
+        long anterior = System.nanoTime();
+        buzon.publicar(new InstantaneaSimulacion(simulacion));
+
+        while (!detenido && !simulacion.haTerminado()) {
+            if (minutosPorSegundo == VELOCIDAD_MAXIMA && !pausado) {
+                simulacion.avanzarTiempo();
+                buzon.publicar(new InstantaneaSimulacion(simulacion));
+                anterior = System.nanoTime();
+                continue;
+            }
+
+            LockSupport.parkNanos(PAUSA_ENTRE_PASOS_NS);
+            long ahora = System.nanoTime();
+            double segundos = (ahora - anterior) / 1e9;
+            anterior = ahora;
+
+            if (pausado || detenido) {
+                continue;
+            }
+
+            double minutos = Math.min(segundos * minutosPorSegundo, MAX_MINUTOS_POR_PASO);
+            simulacion.avanzarHasta(simulacion.getTiempoActualExacto() + minutos);
+            buzon.publicar(new InstantaneaSimulacion(simulacion));
+        }
+    }
+
+    public void setMinutosPorSegundo(double minutosPorSegundo) {
+        this.minutosPorSegundo = minutosPorSegundo;
+        LockSupport.unpark(hilo);
+    }
+
+    public void setPausado(boolean pausado) {
+        this.pausado = pausado;
+    }
+
+    public boolean estaPausado() {
+        return pausado;
+    }
+}
@@ -0,0 +1,228 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Caja;
+import costco.sim.logica.ObservadorCaja;
+
+import java.util.List;
+
+/**
+ * Montículo mínimo indexado de las cajas abiertas que aún tienen lugar en su fila,
+ * ordenado por cantidad de clientes y después por número de caja.
+ * Cada caja avisa sus cambios y se reacomoda en O(log n), así la caja menos
+ * ocupada se consulta en O(1) en lugar de recorrer todas en cada llegada.
+ * También cuenta las cajas saturadas (con más clientes que el umbral dado) y
+ * las llenas (con el máximo de clientes por caja), y lleva conjuntos por número
+ * de caja de las cerradas, las abiertas, las abiertas vacías y las que aceptan
+ * otro cliente de la fila general, para abrir, cerrar y despachar sin recorrer
+ * todas las cajas. Los demás totales de la tienda están en AgregadoTienda.
+ */
+public class IndiceCajas implements ObservadorCaja {
+
+    private final int umbralSaturacion;
+    private final int maxClientesPorCaja;
+
+    // monticulo[k] = índice de caja; posicion[i] = lugar de la caja i en el montículo o -1
+    private final int[] monticulo;
+    private final int[] posicion;
+    private int tamanio;
+
+    // Último estado conocido de cada caja, para calcular diferencias
+    private final boolean[] abierta;
+    private final int[] cantidad;
+
+    private int cajasSaturadas;
+    private int cajasLlenas;
+
+    private final ConjuntoIndices cerradas;
+    private final ConjuntoIndices abiertas;
+    private final ConjuntoIndices abiertasVacias;
+    private final ConjuntoIndices conLugar;
+
+    public IndiceCajas(List<Caja> cajas, int umbralSaturacion, int maxClientesPorCaja) {
+        this.umbralSaturacion = umbralSaturacion;
+        this.maxClientesPorCaja = maxClientesPorCaja;
+
+        int n = cajas.size();
+        this.monticulo = new int[n];
+        this.posicion = new int[n];
+        this.abierta = new boolean[n];
+        this.cantidad = new int[n];
+        this.tamanio = 0;
+        this.cerradas = new ConjuntoIndices(n);
+        this.abiertas = new ConjuntoIndices(n);
+        this.abiertasVacias = new ConjuntoIndices(n);
+        this.conLugar = new ConjuntoIndices(n);
+
+        for (int i = 0; i < n; i++) {
+            posicion[i] = -1;
+            Caja caja = cajas.get(i);
+            caja.setObservador(this);
+            cajaActualizada(caja);
+        }
+    }
+
+    @Override
+    public void cajaActualizada(Caja caja) {
+        int i = caja.getNumeroCaja() - 1;
+
+        // Cajas saturadas y llenas
+        boolean estabaAbierta = abierta[i];
+        int cantidadAnterior = cantidad[i];
+        boolean estaAbierta = caja.estaAbierta();
+        int cantidadNueva = caja.cantidadClientes();
+
+        if (estabaAbierta && cantidadAnterior > umbralSaturacion) {
+            cajasSaturadas--;
+        }
+        if (estaAbierta && cantidadNueva > umbralSaturacion) {
+            cajasSaturadas++;
+        }
+        if (estabaAbierta && cantidadAnterior >= maxClientesPorCaja) {
+            cajasLlenas--;
+        }
+        if (estaAbierta && cantidadNueva >= maxClientesPorCaja) {
+            cajasLlenas++;
+        }
+        abierta[i] = estaAbierta;
+        cantidad[i] = cantidadNueva;
+
+        boolean colaLlena = caja.colaLlena();
+        cerradas.poner(i, !estaAbierta);
+        abiertas.poner(i, estaAbierta);
+        abiertasVacias.poner(i, estaAbierta && cantidadNueva == 0);
+        conLugar.poner(i, estaAbierta && cantidadNueva < maxClientesPorCaja && !colaLlena);
+
+        // Montículo
+        boolean debeEstar = estaAbierta && !colaLlena;
+        if (posicion[i] == -1) {
+            if (debeEstar) {
+                insertar(i);
+            }
+        } else if (!debeEstar) {
+            quitar(i);
+        } else if (cantidadNueva < cantidadAnterior) {
+            subir(posicion[i]);
+        } else if (cantidadNueva > cantidadAnterior) {
+            bajar(posicion[i]);
+        }
+    }
+
+    /**
+     * Índice de la caja abierta con menos clientes y lugar en su fila, o -1
+     */
+    public int cajaMenosOcupada() {
+        return tamanio > 0 ? monticulo[0] : -1;
+    }
+
+    public int getCajasSaturadas() {
+        return cajasSaturadas;
+    }
+
+    /**
+     * Cajas abiertas con el máximo de clientes por caja o más
+     */
+    public int getCajasLlenas() {
+        return cajasLlenas;
+    }
+
+    /**
+     * Índice de la cerrada con el menor número, o -1
+     */
+    public int primeraCerrada() {
+        return cerradas.primero();
+    }
+
+    /**
+     * Índice de la abierta con el menor número, o -1
+     */
+    public int primeraAbierta() {
+        return abiertas.primero();
+    }
+
+    /**
+     * Índice de la abierta sin clientes con el mayor número, o -1
+     */
+    public int ultimaAbiertaVacia() {
+        return abiertasVacias.ultimo();
+    }
+
+    /**
+     * Índice de la abierta con el menor número que tiene menos del máximo de
+     * clientes por caja y lugar en su fila, o -1
+     */
+    public int primeraConLugar() {
+        return conLugar.primero();
+    }
+
+    private void insertar(int i) {
+        monticulo[tamanio] = i;
+        posicion[i] = tamanio;
+        tamanio++;
+        subir(tamanio - 1);
+    }
+
+    private void quitar(int i) {
+        int k = posicion[i];
+        tamanio--;
+        posicion[i] = -1;
+
+        if (k == tamanio) {
+            return;
+        }
+
+        // El último ocupa el hueco y se reacomoda hacia donde corresponda
+        int ultimo = monticulo[tamanio];
+        monticulo[k] = ultimo;
+        posicion[ultimo] = k;
+        subir(k);
+        bajar(posicion[ultimo]);
+    }
+
+    private void subir(int k) {
+        while (k > 0) {
+            int padre = (k - 1) / 2;
+            if (!menor(monticulo[k], monticulo[padre])) {
+                break;
+            }
+            intercambiar(k, padre);
+            k = padre;
+        }
+    }
+
+    private void bajar(int k) {
+        while (true) {
+            int izquierdo = 2 * k + 1;
+            if (izquierdo >= tamanio) {
+                break;
+            }
+
+            int hijo = izquierdo;
+            int derecho = izquierdo + 1;
+            if (derecho < tamanio && menor(monticulo[derecho], monticulo[izquierdo])) {
+                hijo = derecho;
+            }
+
+            if (!menor(monticulo[hijo], monticulo[k])) {
+                break;
+            }
+            intercambiar(k, hijo);
+            k = hijo;
+        }
+    }
+
+    private boolean menor(int a, int b) {
+        if (cantidad[a] != cantidad[b]) {
+            return cantidad[a] < cantidad[b];
+        }
+        return a < b;
+    }
+
+    private void intercambiar(int k1, int k2) {
+        int a = monticulo[k1];
+        int b = monticulo[k2];
+        monticulo[k1] = b;
+        monticulo[k2] = a;
+        posicion[b] = k1;
+        posicion[a] = k2;
+    }
+}
@@ -0,0 +1,185 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Caja;
+import costco.sim.logica.Cliente;
+import costco.sim.logica.Cola;
+import costco.sim.logica.Estadistica;
+
+/**
+ * Foto inmutable del estado visible de una simulación en un instante:
+ * por caja, si está abierta, el id del cliente que paga y los ids de su fila,
+ * más la fila general y los contadores. Solo guarda ids y números, así el hilo
+ * de la interfaz la puede leer mientras la simulación sigue en otro hilo.
+ * Un id de 0 significa que no hay cliente.
+ */
+public final class InstantaneaSimulacion {
+
+    private static final int[] SIN_CLIENTES = new int[0];
+
+    private final double tiempo;
+    private final int tiempoSimulacion;
+    private final boolean terminada;
+    private final boolean filaUnica;
+
+    private final boolean[] cajaAbierta;
+    private final int[] clientePagando;
+    private final int[] atendidosPorCaja;
+    private final int[][] filasCajas;
+    private final int[] filaGeneral;
+
+    private final int cajasAbiertas;
+    private final int clientesAtendidos;
+    private final double esperaPromedio;
+    private final double pagoPromedio;
+    private final double totalPromedio;
+
+    InstantaneaSimulacion(Simulacion simulacion) {
+        this.tiempo = simulacion.getTiempoActualExacto();
+        this.tiempoSimulacion = simulacion.getTiempoSimulacion();
+        this.terminada = simulacion.haTerminado();
+        this.filaUnica = simulacion.esFilaUnica();
+
+        int n = simulacion.getCajas().size();
+        this.cajaAbierta = new boolean[n];
+        this.clientePagando = new int[n];
+        this.atendidosPorCaja = new int[n];
+        this.filasCajas = new int[n][];
+
+        for (int i = 0; i < n; i++) {
+            Caja caja = simulacion.getCajas().get(i);
+            Cliente pagando = caja.getClienteActualPagando();
+
+            cajaAbierta[i] = caja.estaAbierta();
+            clientePagando[i] = pagando != null ? pagando.getId() : 0;
+            atendidosPorCaja[i] = caja.getClientesAtendidos();
+            filasCajas[i] = copiarIds(caja.getColaClientes());
+        }
+
+        this.filaGeneral = simulacion instanceof SimulacionFilaUnica unica
+                ? copiarIds(unica.getFilaGeneral())
+                : SIN_CLIENTES;
+
+        Estadistica stats = simulacion.getEstadisticas();
+        this.cajasAbiertas = simulacion.getCajasAbiertas();
+        this.clientesAtendidos = stats.getTotalClientesAtendidos();
+        this.esperaPromedio = stats.getTiempoPromedioEspera();
+        this.pagoPromedio = stats.getTiempoPromedioPago();
+        this.totalPromedio = stats.getTiempoPromedioTotal();
+    }
+
+    /**
+     * Instantánea armada a partir de un estado ya copiado (por ejemplo al
+     * reproducir un registro de eventos); los arreglos no se vuelven a copiar
+     */
+    InstantaneaSimulacion(double tiempo, int tiempoSimulacion, boolean filaUnica,
+                          boolean[] cajaAbierta, int[] clientePagando, int[] atendidosPorCaja,
+                          int[][] filasCajas, int[] filaGeneral, int cajasAbiertas,
+                          int clientesAtendidos, double esperaPromedio, double pagoPromedio) {
+        this.tiempo = tiempo;
+        this.tiempoSimulacion = tiempoSimulacion;
+        this.terminada = false;
+        this.filaUnica = filaUnica;
+        this.cajaAbierta = cajaAbierta;
+        this.clientePagando = clientePagando;
+        this.atendidosPorCaja = atendidosPorCaja;
+        this.filasCajas = filasCajas;
+        this.filaGeneral = filaGeneral;
+        this.cajasAbiertas = cajasAbiertas;
+        this.clientesAtendidos = clientesAtendidos;
+        this.esperaPromedio = esperaPromedio;
+        this.pagoPromedio = pagoPromedio;
+        this.totalPromedio = esperaPromedio + pagoPromedio;
+    }
+
+    private static int[] copiarIds(Cola<Cliente> cola) {
+        if (cola == null || cola.estaVacia()) {
+            return SIN_CLIENTES;
+        }
+
+        int[] ids = new int[cola.tamanio()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = cola.get(i).getId();
+        }
+        return ids;
+    }
+
+    public double getTiempo() {
+        return tiempo;
+    }
+
+    public int getTiempoSimulacion() {
+        return tiempoSimulacion;
+    }
+
+    public boolean estaTerminada() {
+        return terminada;
+    }
+
+    public boolean esFilaUnica() {
+        return filaUnica;
+    }
+
+    public int getNumeroCajas() {
+        return cajaAbierta.length;
+    }
+
+    public boolean cajaAbierta(int indiceCaja) {
+        return cajaAbierta[indiceCaja];
+    }
+
+    /**
+     * Id del cliente que paga en la caja, o 0 si no hay
+     */
+    public int getClientePagando(int indiceCaja) {
+        return clientePagando[indiceCaja];
+    }
+
+    public int getAtendidos(int indiceCaja) {
+        return atendidosPorCaja[indiceCaja];
+    }
+
+    public int getTamanioFila(int indiceCaja) {
+        return filasCajas[indiceCaja].length;
+    }
+
+    /**
+     * Id del cliente en la posición dada de la fila de una caja (0 = el primero)
+     */
+    public int getClienteEnFila(int indiceCaja, int posicion) {
+        return filasCajas[indiceCaja][posicion];
+    }
+
+    public int getTamanioFilaGeneral() {
+        return filaGeneral.length;
+    }
+
+    public int getClienteEnFilaGeneral(int posicion) {
+        return filaGeneral[posicion];
+    }
+
+    public int getCajasAbiertas() {
+        return cajasAbiertas;
+    }
+
+    public int getClientesAtendidos() {
+        return clientesAtendidos;
+    }
+
+    public double getEsperaPromedio() {
+        return esperaPromedio;
+    }
+
+    public double getPagoPromedio() {
+        return pagoPromedio;
+    }
+
+    public double getTotalPromedio() {
+        return totalPromedio;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InstantaneaSimulacion[t=%.2f, cajas=%d/%d, atendidos=%d, terminada=%s]",
+                tiempo, cajasAbiertas, getNumeroCajas(), clientesAtendidos, terminada);
+    }
+}
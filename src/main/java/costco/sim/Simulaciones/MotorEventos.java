@@ -0,0 +1,99 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Caja;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Agenda de eventos futuros ordenada por tiempo.
+ * Permite que la simulación salte directo al siguiente evento en lugar de
+ * avanzar minuto a minuto.
+ */
+public class MotorEventos {
+
+    private final PriorityQueue<Evento> pendientes;
+    private long contadorSecuencia;
+
+    public MotorEventos() {
+        this.pendientes = new PriorityQueue<>();
+        this.contadorSecuencia = 0;
+    }
+
+    public void programar(double tiempo, TipoEvento tipo, Caja caja) {
+        pendientes.add(new Evento(tiempo, tipo, caja, contadorSecuencia++));
+    }
+
+    /**
+     * Gasta el siguiente número de secuencia sin programar nada: lo usa quien
+     * atiende eventos por fuera de la agenda y debe dejar el contador como si no
+     */
+    long reservarSecuencia() {
+        return contadorSecuencia++;
+    }
+
+    public Evento siguiente() {
+        return pendientes.poll();
+    }
+
+    /**
+     * Tiempo del próximo evento, o infinito si la agenda está vacía
+     */
+    public double tiempoSiguiente() {
+        Evento proximo = pendientes.peek();
+        return proximo != null ? proximo.getTiempo() : Double.POSITIVE_INFINITY;
+    }
+
+    public boolean estaVacia() {
+        return pendientes.isEmpty();
+    }
+
+    public int cantidadPendientes() {
+        return pendientes.size();
+    }
+
+    public void limpiar() {
+        pendientes.clear();
+        contadorSecuencia = 0;
+    }
+
+    /**
+     * Escribe los eventos pendientes en el orden en que saldrían, con su
+     * secuencia, y el contador, así los empates se siguen resolviendo igual al
+     * retomar y dos agendas iguales dan los mismos bytes
+     */
+    void escribirEstado(DataOutput salida) throws IOException {
+        Evento[] enOrden = pendientes.toArray(new Evento[0]);
+        Arrays.sort(enOrden);
+        salida.writeLong(contadorSecuencia);
+        salida.writeInt(enOrden.length);
+        for (Evento evento : enOrden) {
+            salida.writeDouble(evento.getTiempo());
+            salida.writeByte(evento.getTipo().ordinal());
+            salida.writeInt(evento.getCaja() != null ? evento.getCaja().getNumeroCaja() : 0);
+            salida.writeLong(evento.getSecuencia());
+        }
+    }
+
+    /**
+     * Reemplaza la agenda por la que escribió escribirEstado; los eventos de
+     * caja se enlazan con las cajas dadas por su número
+     */
+    void leerEstado(DataInput entrada, List<Caja> cajas) throws IOException {
+        pendientes.clear();
+        contadorSecuencia = entrada.readLong();
+        int cantidad = entrada.readInt();
+        for (int i = 0; i < cantidad; i++) {
+            double tiempo = entrada.readDouble();
+            TipoEvento tipo = TipoEvento.values()[entrada.readByte()];
+            int numeroCaja = entrada.readInt();
+            long secuencia = entrada.readLong();
+            Caja caja = numeroCaja > 0 ? cajas.get(numeroCaja - 1) : null;
+            pendientes.add(new Evento(tiempo, tipo, caja, secuencia));
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.AgregadoTienda;
+import costco.sim.logica.Caja;
+import costco.sim.logica.Cliente;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Atiende en paralelo los fines de pago de una ventana de tiempo, cuando cada
+ * caja tiene su propia fila. Hasta la siguiente llegada o revisión de cajas
+ * ninguna caja afecta a otra: cada una termina a su cliente, empieza con el
+ * siguiente de su fila (con su propio generador) y así hasta salir de la ventana.
+ *
+ * Durante la ventana las cajas se desconectan del agregado, del índice y de la agenda; al
+ * final se reconectan con sus diferencias y los clientes terminados se registran
+ * en el orden de la agenda secuencial: por tiempo de fin y, en empates exactos,
+ * por la secuencia que habría tenido su evento. Los fines encadenados dentro de
+ * la ventana gastan su número de secuencia en ese orden y el siguiente fin de
+ * cada caja se programa al registrar su último terminado, así la agenda queda
+ * igual que sin paralelismo. El resultado es el mismo para la misma semilla.
+ */
+public class PagosEnParalelo {
+
+    // Con menos eventos en la ventana no vale la pena repartir
+    private static final int MIN_EVENTOS_PARALELO = 64;
+    private static final int CAJAS_POR_TAREA = 8;
+
+    private final ForkJoinPool pool;
+
+    // Por lugar en la ventana; cada tarea escribe solo en los suyos
+    private Caja[] ventana;
+    private int[] colaAntes;
+    private Cliente[][] terminados;
+    private int[] cantidadTerminados;
+
+    // Para registrar en orden: por lugar, el siguiente terminado y la secuencia
+    // de su evento; y un montículo de lugares por (tiempo de fin, secuencia)
+    private int[] siguienteTerminado;
+    private long[] secuencia;
+    private int[] monticulo;
+
+    public PagosEnParalelo(ForkJoinPool pool) {
+        this.pool = pool;
+        this.ventana = new Caja[16];
+        this.colaAntes = new int[16];
+        this.terminados = new Cliente[16][];
+        this.cantidadTerminados = new int[16];
+        this.siguienteTerminado = new int[16];
+        this.secuencia = new long[16];
+        this.monticulo = new int[16];
+    }
+
+    /**
+     * Saca de la agenda todos los fines de pago anteriores a horizonte (exclusivo)
+     * y hasta tiempoObjetivo (inclusive) y los atiende. Devuelve el tiempo del
+     * último fin de pago atendido, o NaN si no había ninguno.
+     */
+    double procesar(Simulacion simulacion, double horizonte, double tiempoObjetivo) {
+        MotorEventos eventos = simulacion.eventos;
+        int n = 0;
+        while (dentro(eventos.tiempoSiguiente(), horizonte, tiempoObjetivo)) {
+            Evento evento = eventos.siguiente();
+            if (n == ventana.length) {
+                crecer();
+            }
+            secuencia[n] = evento.getSecuencia();
+            ventana[n++] = evento.getCaja();
+        }
+        if (n == 0) {
+            return Double.NaN;
+        }
+
+        AgregadoTienda agregado = simulacion.agregado;
+        for (int k = 0; k < n; k++) {
+            Caja caja = ventana[k];
+            colaAntes[k] = caja.cantidadClientesEsperando();
+            caja.setAgregado(null);
+            caja.setObservador(null);
+            caja.setObservadorPagos(null);
+        }
+
+        if (n >= MIN_EVENTOS_PARALELO) {
+            pool.invoke(new Tarea(0, n, horizonte, tiempoObjetivo));
+        } else {
+            atender(0, n, horizonte, tiempoObjetivo);
+        }
+
+        for (int k = 0; k < n; k++) {
+            Caja caja = ventana[k];
+            caja.setAgregado(agregado);
+            caja.setObservador(simulacion.indiceCajas);
+            caja.setObservadorPagos(simulacion.agendaPagos);
+            simulacion.indiceCajas.cajaActualizada(caja);
+            agregado.ajustarClientesEnCola(caja.cantidadClientesEsperando() - colaAntes[k]);
+            agregado.ajustarClientesPagando(caja.tieneClientePagando() ? 0 : -1);
+
+            // Cada caja atendió al menos el fin de pago que la trajo a la ventana
+            siguienteTerminado[k] = 0;
+            monticulo[k] = k;
+        }
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            hundir(i, n);
+        }
+
+        double ultimo = Double.NaN;
+        int enMonticulo = n;
+        while (enMonticulo > 0) {
+            int k = monticulo[0];
+            Cliente terminado = terminados[k][siguienteTerminado[k]];
+            terminados[k][siguienteTerminado[k]++] = null;
+            simulacion.registrarTerminado(terminado);
+            ultimo = terminado.getTiempoFinPago();
+
+            // Al terminar empezó el siguiente pago de la caja, que se agendó en este momento
+            Caja caja = ventana[k];
+            if (siguienteTerminado[k] < cantidadTerminados[k]) {
+                secuencia[k] = eventos.reservarSecuencia();
+            } else {
+                if (caja.tieneClientePagando()) {
+                    eventos.programar(caja.getClienteActualPagando().getTiempoFinPago(), TipoEvento.FIN_PAGO, caja);
+                }
+                ventana[k] = null;
+                monticulo[0] = monticulo[--enMonticulo];
+            }
+            hundir(0, enMonticulo);
+        }
+        return ultimo;
+    }
+
+    /**
+     * Baja el lugar en la posición i del montículo hasta que quede en orden
+     */
+    private void hundir(int i, int tamanio) {
+        int lugar = monticulo[i];
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= tamanio) {
+                break;
+            }
+            if (hijo + 1 < tamanio && antes(monticulo[hijo + 1], monticulo[hijo])) {
+                hijo++;
+            }
+            if (!antes(monticulo[hijo], lugar)) {
+                break;
+            }
+            monticulo[i] = monticulo[hijo];
+            i = hijo;
+        }
+        monticulo[i] = lugar;
+    }
+
+    /**
+     * Si el siguiente terminado del lugar a sale de la agenda antes que el de b
+     */
+    private boolean antes(int a, int b) {
+        int porTiempo = Double.compare(terminados[a][siguienteTerminado[a]].getTiempoFinPago(),
+                terminados[b][siguienteTerminado[b]].getTiempoFinPago());
+        return porTiempo != 0 ? porTiempo < 0 : secuencia[a] < secuencia[b];
+    }
+
+    private static boolean dentro(double tiempo, double horizonte, double tiempoObjetivo) {
+        return tiempo < horizonte && tiempo <= tiempoObjetivo;
+    }
+
+    /**
+     * Atiende las cajas de los lugares [desde, hasta) de la ventana
+     */
+    private void atender(int desde, int hasta, double horizonte, double tiempoObjetivo) {
+        for (int k = desde; k < hasta; k++) {
+            Caja caja = ventana[k];
+            Cliente[] propios = terminados[k];
+            int m = 0;
+
+            while (caja.tieneClientePagando()) {
+                double fin = caja.getClienteActualPagando().getTiempoFinPago();
+                if (!dentro(fin, horizonte, tiempoObjetivo)) {
+                    break;
+                }
+                // El siguiente de la fila empieza en ese mismo instante
+                Cliente terminado = caja.procesarPago(fin);
+                if (propios == null || m == propios.length) {
+                    propios = propios == null ? new Cliente[8] : Arrays.copyOf(propios, m * 2);
+                }
+                propios[m++] = terminado;
+            }
+
+            terminados[k] = propios;
+            cantidadTerminados[k] = m;
+        }
+    }
+
+    private void crecer() {
+        int capacidad = ventana.length * 2;
+        ventana = Arrays.copyOf(ventana, capacidad);
+        colaAntes = Arrays.copyOf(colaAntes, capacidad);
+        terminados = Arrays.copyOf(terminados, capacidad);
+        cantidadTerminados = Arrays.copyOf(cantidadTerminados, capacidad);
+        siguienteTerminado = Arrays.copyOf(siguienteTerminado, capacidad);
+        secuencia = Arrays.copyOf(secuencia, capacidad);
+        monticulo = Arrays.copyOf(monticulo, capacidad);
+    }
+
+    private final class Tarea extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int desde;
+        private final int hasta;
+        private final double horizonte;
+        private final double tiempoObjetivo;
+
+        Tarea(int desde, int hasta, double horizonte, double tiempoObjetivo) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.horizonte = horizonte;
+            this.tiempoObjetivo = tiempoObjetivo;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= CAJAS_POR_TAREA) {
+                atender(desde, hasta, horizonte, tiempoObjetivo);
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new Tarea(desde, medio, horizonte, tiempoObjetivo),
+                    new Tarea(medio, hasta, horizonte, tiempoObjetivo));
+        }
+    }
+}
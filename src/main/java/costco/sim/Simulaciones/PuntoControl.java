@@ -0,0 +1,184 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Escenario;
+import costco.sim.logica.FlujoAleatorio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Foto binaria de una simulación a mitad de jornada: reloj, flujos aleatorios,
+ * estadísticas, cada caja con su cliente pagando y su fila, la fila general
+ * y la agenda de eventos. Restaurarla da una simulación que sigue exactamente
+ * igual que la original, así se corre la mañana una vez y se ramifican
+ * muchas tardes (con otro escenario o en varios hilos) desde el mismo punto.
+ *
+ * Los bytes no cambian después de tomarla, por lo que se puede restaurar
+ * desde varios hilos a la vez. No guarda el escenario (cada rama da el suyo,
+ * con el mismo número de cajas), ni el registro de eventos, el almacén
+ * columnar o el modo paralelo, que son de configuración.
+ *
+ * Formato (big endian): magia int, versión short, fila única byte, semilla long,
+ * cajas int, duración int, minuto double, algoritmo aleatorio (UTF); después el
+ * estado de la simulación. De cada flujo aleatorio se guarda cuántos números
+ * entregó: al restaurar se derivan de nuevo con la semilla y se adelantan.
+ */
+public final class PuntoControl {
+
+    public static final int MAGIA = 0x43535043; // "CSPC"
+    public static final short VERSION = 3;
+
+    private final byte[] datos;
+    private final int inicioEstado;
+    private final boolean filaUnica;
+    private final long semilla;
+    private final int numeroCajas;
+    private final int tiempoSimulacion;
+    private final double tiempo;
+    private final String algoritmoAleatorio;
+
+    private PuntoControl(byte[] datos) {
+        try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(datos))) {
+            if (entrada.readInt() != MAGIA) {
+                throw new IllegalArgumentException("No es un punto de control de la simulación");
+            }
+            short version = entrada.readShort();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Versión de punto de control no soportada: " + version);
+            }
+            this.filaUnica = entrada.readBoolean();
+            this.semilla = entrada.readLong();
+            this.numeroCajas = entrada.readInt();
+            this.tiempoSimulacion = entrada.readInt();
+            this.tiempo = entrada.readDouble();
+            this.algoritmoAleatorio = entrada.readUTF();
+            this.inicioEstado = datos.length - entrada.available();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Punto de control incompleto", e);
+        }
+        this.datos = datos;
+    }
+
+    /**
+     * Toma el punto de control de la simulación en su instante actual
+     */
+    public static PuntoControl tomar(Simulacion simulacion) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeInt(MAGIA);
+            salida.writeShort(VERSION);
+            salida.writeBoolean(simulacion.esFilaUnica());
+            salida.writeLong(simulacion.getSemilla());
+            salida.writeInt(simulacion.getCajas().size());
+            salida.writeInt(simulacion.getTiempoSimulacion());
+            salida.writeDouble(simulacion.getTiempoActualExacto());
+            salida.writeUTF(simulacion.getFabricaAleatoria().name());
+            simulacion.escribirEstado(salida);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new PuntoControl(bytes.toByteArray());
+    }
+
+    public static PuntoControl leer(Path archivo) throws IOException {
+        return new PuntoControl(Files.readAllBytes(archivo));
+    }
+
+    public void guardar(Path archivo) throws IOException {
+        Files.write(archivo, datos);
+    }
+
+    /**
+     * Nueva simulación (pausada) que sigue desde este punto con el escenario dado,
+     * que debe tener el mismo número de cajas y una jornada que no termine antes
+     * del minuto del punto (salvo que se haya tomado cuando la jornada original ya
+     * había terminado y solo se vaciaban las filas). Con el escenario original la
+     * continuación es idéntica a la de la simulación de la que se tomó.
+     */
+    public Simulacion restaurar(Escenario escenario) {
+        if (escenario.numCajas() != numeroCajas) {
+            throw new IllegalArgumentException("El escenario tiene " + escenario.numCajas()
+                    + " cajas y el punto de control " + numeroCajas);
+        }
+        if (escenario.tiempoSimulacion() < Math.min(tiempo, tiempoSimulacion)) {
+            throw new IllegalArgumentException(String.format(
+                    "La jornada del escenario dura %d min y el punto de control es del minuto %.2f",
+                    escenario.tiempoSimulacion(), tiempo));
+        }
+
+        RandomGeneratorFactory<SplittableGenerator> fabrica = FlujoAleatorio.fabrica(algoritmoAleatorio);
+        Simulacion simulacion = filaUnica
+                ? new SimulacionFilaUnica(semilla, escenario, fabrica)
+                : new SimulacionMultiplesFilas(semilla, escenario, fabrica);
+        try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(datos))) {
+            entrada.skipNBytes(inicioEstado);
+            simulacion.leerEstado(entrada);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Punto de control incompleto", e);
+        }
+        return simulacion;
+    }
+
+    /**
+     * Como restaurar(escenario), pero desde aquí las llegadas y los pagos salen
+     * de flujos nuevos derivados de otra semilla: la mañana es la misma y la
+     * tarde es otra muestra. La llegada ya programada se conserva.
+     */
+    public Simulacion restaurar(Escenario escenario, long semillaContinuacion) {
+        Simulacion simulacion = restaurar(escenario);
+        simulacion.cambiarFlujosAleatorios(semillaContinuacion);
+        return simulacion;
+    }
+
+    public byte[] getDatos() {
+        return datos.clone();
+    }
+
+    public int getTamanio() {
+        return datos.length;
+    }
+
+    public boolean esFilaUnica() {
+        return filaUnica;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public int getNumeroCajas() {
+        return numeroCajas;
+    }
+
+    public int getTiempoSimulacion() {
+        return tiempoSimulacion;
+    }
+
+    /**
+     * Minuto de la jornada en que se tomó
+     */
+    public double getTiempo() {
+        return tiempo;
+    }
+
+    /**
+     * Nombre del algoritmo de los flujos aleatorios, por ejemplo L64X128MixRandom
+     */
+    public String getAlgoritmoAleatorio() {
+        return algoritmoAleatorio;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PuntoControl[%s, t=%.2f min, cajas=%d, %d bytes]",
+                filaUnica ? "fila única" : "múltiples filas", tiempo, numeroCajas, datos.length);
+    }
+}
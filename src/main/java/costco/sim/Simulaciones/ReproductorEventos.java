@@ -0,0 +1,375 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.TipoRegistro;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Reconstruye el estado visible de una jornada a partir de un archivo de
+ * GrabadorEventos, sin volver a simular. El archivo se mapea en memoria y se
+ * recorre una vez al abrirlo para guardar un cuadro clave cada pocos minutos;
+ * ir a cualquier minuto (adelante o atrás) restaura el cuadro clave anterior y
+ * aplica solo los registros que faltan.
+ * El estado sale como InstantaneaSimulacion, igual que de una simulación en vivo.
+ */
+public class ReproductorEventos implements AutoCloseable {
+
+    private static final double MINUTOS_ENTRE_CUADROS_CLAVE = 10;
+    // Múltiplo de TAMANIO_REGISTRO, así ningún registro queda partido entre regiones
+    private static final long TAMANIO_REGION = 1L << 30;
+    private static final TipoRegistro[] TIPOS = TipoRegistro.values();
+
+    private final FileChannel canal;
+    private final MappedByteBuffer[] regiones;
+    private final long totalRegistros;
+
+    private final long semilla;
+    private final int numCajas;
+    private final int tiempoSimulacion;
+    private final boolean filaUnica;
+    private final double tiempoFinal;
+
+    // Estado en el tiempo actual
+    private long siguiente;
+    private double tiempo;
+    private final boolean[] cajaAbierta;
+    private final int[] clientePagando;
+    private final int[] atendidosPorCaja;
+    private final FilaIds[] filas;
+    private final FilaIds filaGeneral;
+    private int cajasAbiertas;
+    private int clientesAtendidos;
+    private double sumaEspera;
+    private double sumaPago;
+
+    // Por id de cliente; cada valor se escribe una sola vez, así sirven para cualquier cuadro clave
+    private double[] llegada;
+    private double[] inicioPago;
+
+    private final ArrayList<CuadroClave> cuadrosClave;
+
+    public ReproductorEventos(Path archivo) throws IOException {
+        this.canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        long tamanio = canal.size();
+
+        if (tamanio < GrabadorEventos.TAMANIO_ENCABEZADO) {
+            canal.close();
+            throw new IllegalArgumentException("El archivo no es un registro de eventos: " + archivo);
+        }
+        ByteBuffer encabezado = canal.map(FileChannel.MapMode.READ_ONLY, 0, GrabadorEventos.TAMANIO_ENCABEZADO)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        if (encabezado.getInt(0) != GrabadorEventos.MAGIA
+                || encabezado.getShort(4) != GrabadorEventos.VERSION
+                || encabezado.getShort(6) != GrabadorEventos.TAMANIO_REGISTRO) {
+            canal.close();
+            throw new IllegalArgumentException("El archivo no es un registro de eventos: " + archivo);
+        }
+        this.semilla = encabezado.getLong(8);
+        this.numCajas = encabezado.getInt(16);
+        this.tiempoSimulacion = encabezado.getInt(20);
+        this.filaUnica = encabezado.get(24) != 0;
+
+        long bytesRegistros = tamanio - GrabadorEventos.TAMANIO_ENCABEZADO;
+        this.regiones = new MappedByteBuffer[(int) ((bytesRegistros + TAMANIO_REGION - 1) / TAMANIO_REGION)];
+        for (int i = 0; i < regiones.length; i++) {
+            long inicio = GrabadorEventos.TAMANIO_ENCABEZADO + i * TAMANIO_REGION;
+            regiones[i] = canal.map(FileChannel.MapMode.READ_ONLY, inicio,
+                    Math.min(TAMANIO_REGION, tamanio - inicio));
+            regiones[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        this.cajaAbierta = new boolean[numCajas];
+        this.clientePagando = new int[numCajas];
+        this.atendidosPorCaja = new int[numCajas];
+        this.filas = new FilaIds[numCajas];
+        for (int i = 0; i < numCajas; i++) {
+            filas[i] = new FilaIds();
+        }
+        this.filaGeneral = new FilaIds();
+        this.llegada = new double[1024];
+        this.inicioPago = new double[1024];
+
+        this.totalRegistros = contarRegistros(bytesRegistros / GrabadorEventos.TAMANIO_REGISTRO);
+        this.cuadrosClave = new ArrayList<>();
+        indexar();
+        this.tiempoFinal = Math.max(tiempoSimulacion,
+                totalRegistros > 0 ? tiempoRegistro(totalRegistros - 1) : 0);
+        restaurar(cuadrosClave.get(0));
+    }
+
+    /**
+     * Un archivo mapeado que no se cerró bien termina en ceros; se corta ahí
+     */
+    private long contarRegistros(long maximo) {
+        long bajo = 0, alto = maximo;
+        while (bajo < alto) {
+            long medio = (bajo + alto) >>> 1;
+            if (tipoRegistro(medio) != 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Recorre todo el archivo una vez, guardando un cuadro clave en cada múltiplo
+     * de MINUTOS_ENTRE_CUADROS_CLAVE con todo lo ocurrido hasta ese minuto inclusive
+     */
+    private void indexar() {
+        while (siguiente < totalRegistros) {
+            double t = tiempoRegistro(siguiente);
+            while (t > cuadrosClave.size() * MINUTOS_ENTRE_CUADROS_CLAVE) {
+                tiempo = cuadrosClave.size() * MINUTOS_ENTRE_CUADROS_CLAVE;
+                cuadrosClave.add(new CuadroClave(this));
+            }
+            aplicar(siguiente++);
+        }
+        if (cuadrosClave.isEmpty()) {
+            cuadrosClave.add(new CuadroClave(this));
+        }
+    }
+
+    /**
+     * Deja el estado en el minuto pedido (acotado a la jornada)
+     */
+    public void irA(double tiempoObjetivo) {
+        double objetivo = Math.max(0, Math.min(tiempoObjetivo, tiempoFinal));
+
+        int indice = (int) Math.min(Math.floor(objetivo / MINUTOS_ENTRE_CUADROS_CLAVE), cuadrosClave.size() - 1);
+        CuadroClave cuadro = cuadrosClave.get(indice);
+        // Hacia atrás, o hacia adelante más allá del siguiente cuadro clave, conviene restaurar
+        if (objetivo < tiempo || cuadro.tiempo > tiempo) {
+            restaurar(cuadro);
+        }
+
+        while (siguiente < totalRegistros && tiempoRegistro(siguiente) <= objetivo) {
+            aplicar(siguiente++);
+        }
+        tiempo = objetivo;
+    }
+
+    private void aplicar(long indice) {
+        int idCliente = idRegistro(indice);
+        int caja = cajaRegistro(indice) - 1;
+        double t = tiempoRegistro(indice);
+
+        switch (TIPOS[tipoRegistro(indice) - 1]) {
+            case LLEGADA -> {
+                asegurarCliente(idCliente);
+                llegada[idCliente] = t;
+            }
+            case FILA_GENERAL -> filaGeneral.agregar(idCliente);
+            case ASIGNACION -> {
+                filaGeneral.quitar(idCliente);
+                filas[caja].agregar(idCliente);
+            }
+            case INICIO_PAGO -> {
+                filas[caja].quitar(idCliente);
+                clientePagando[caja] = idCliente;
+                inicioPago[idCliente] = t;
+            }
+            case FIN_PAGO -> {
+                clientePagando[caja] = 0;
+                atendidosPorCaja[caja]++;
+                clientesAtendidos++;
+                sumaEspera += inicioPago[idCliente] - llegada[idCliente];
+                sumaPago += t - inicioPago[idCliente];
+            }
+            case APERTURA -> {
+                cajaAbierta[caja] = true;
+                cajasAbiertas++;
+            }
+            case CIERRE -> {
+                cajaAbierta[caja] = false;
+                cajasAbiertas--;
+            }
+        }
+    }
+
+    private void asegurarCliente(int idCliente) {
+        if (idCliente >= llegada.length) {
+            int capacidad = Math.max(idCliente + 1, llegada.length * 2);
+            llegada = Arrays.copyOf(llegada, capacidad);
+            inicioPago = Arrays.copyOf(inicioPago, capacidad);
+        }
+    }
+
+    private void restaurar(CuadroClave cuadro) {
+        siguiente = cuadro.siguiente;
+        tiempo = cuadro.tiempo;
+        System.arraycopy(cuadro.cajaAbierta, 0, cajaAbierta, 0, numCajas);
+        System.arraycopy(cuadro.clientePagando, 0, clientePagando, 0, numCajas);
+        System.arraycopy(cuadro.atendidosPorCaja, 0, atendidosPorCaja, 0, numCajas);
+        for (int i = 0; i < numCajas; i++) {
+            filas[i].reemplazar(cuadro.filas[i]);
+        }
+        filaGeneral.reemplazar(cuadro.filaGeneral);
+        cajasAbiertas = cuadro.cajasAbiertas;
+        clientesAtendidos = cuadro.clientesAtendidos;
+        sumaEspera = cuadro.sumaEspera;
+        sumaPago = cuadro.sumaPago;
+    }
+
+    /**
+     * Copia del estado actual para la interfaz
+     */
+    public InstantaneaSimulacion instantanea() {
+        int[][] copiaFilas = new int[numCajas][];
+        for (int i = 0; i < numCajas; i++) {
+            copiaFilas[i] = filas[i].copiar();
+        }
+        double espera = clientesAtendidos > 0 ? sumaEspera / clientesAtendidos : 0;
+        double pago = clientesAtendidos > 0 ? sumaPago / clientesAtendidos : 0;
+
+        return new InstantaneaSimulacion(tiempo, tiempoSimulacion, filaUnica,
+                cajaAbierta.clone(), clientePagando.clone(), atendidosPorCaja.clone(),
+                copiaFilas, filaGeneral.copiar(), cajasAbiertas, clientesAtendidos, espera, pago);
+    }
+
+    private ByteBuffer region(long indice) {
+        return regiones[(int) (indice * GrabadorEventos.TAMANIO_REGISTRO / TAMANIO_REGION)];
+    }
+
+    private int posicion(long indice) {
+        return (int) (indice * GrabadorEventos.TAMANIO_REGISTRO % TAMANIO_REGION);
+    }
+
+    private double tiempoRegistro(long indice) {
+        return region(indice).getDouble(posicion(indice));
+    }
+
+    private int idRegistro(long indice) {
+        return region(indice).getInt(posicion(indice) + 8);
+    }
+
+    private int cajaRegistro(long indice) {
+        return Short.toUnsignedInt(region(indice).getShort(posicion(indice) + 12));
+    }
+
+    private int tipoRegistro(long indice) {
+        return region(indice).get(posicion(indice) + 14);
+    }
+
+    public double getTiempo() {
+        return tiempo;
+    }
+
+    /**
+     * Último minuto con algo que mostrar (la jornada o el último registro, lo que sea mayor)
+     */
+    public double getTiempoFinal() {
+        return tiempoFinal;
+    }
+
+    public long getTotalRegistros() {
+        return totalRegistros;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public int getNumeroCajas() {
+        return numCajas;
+    }
+
+    public boolean esFilaUnica() {
+        return filaUnica;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Fila de ids: se agrega al final y normalmente se quita del frente
+     */
+    private static final class FilaIds {
+        private int[] ids = new int[16];
+        private int inicio;
+        private int fin;
+
+        void agregar(int id) {
+            if (fin == ids.length) {
+                int tamanio = fin - inicio;
+                if (inicio > ids.length / 2) {
+                    System.arraycopy(ids, inicio, ids, 0, tamanio);
+                } else {
+                    ids = Arrays.copyOfRange(ids, inicio, ids.length * 2);
+                }
+                inicio = 0;
+                fin = tamanio;
+            }
+            ids[fin++] = id;
+        }
+
+        void quitar(int id) {
+            if (inicio < fin && ids[inicio] == id) {
+                inicio++;
+                return;
+            }
+            for (int i = inicio + 1; i < fin; i++) {
+                if (ids[i] == id) {
+                    System.arraycopy(ids, i + 1, ids, i, fin - i - 1);
+                    fin--;
+                    return;
+                }
+            }
+        }
+
+        int[] copiar() {
+            return Arrays.copyOfRange(ids, inicio, fin);
+        }
+
+        void reemplazar(int[] nuevos) {
+            if (nuevos.length > ids.length) {
+                ids = new int[Math.max(nuevos.length, ids.length * 2)];
+            }
+            System.arraycopy(nuevos, 0, ids, 0, nuevos.length);
+            inicio = 0;
+            fin = nuevos.length;
+        }
+    }
+
+    private static final class CuadroClave {
+        final long siguiente;
+        final double tiempo;
+        final boolean[] cajaAbierta;
+        final int[] clientePagando;
+        final int[] atendidosPorCaja;
+        final int[][] filas;
+        final int[] filaGeneral;
+        final int cajasAbiertas;
+        final int clientesAtendidos;
+        final double sumaEspera;
+        final double sumaPago;
+
+        CuadroClave(ReproductorEventos r) {
+            this.siguiente = r.siguiente;
+            this.tiempo = r.tiempo;
+            this.cajaAbierta = r.cajaAbierta.clone();
+            this.clientePagando = r.clientePagando.clone();
+            this.atendidosPorCaja = r.atendidosPorCaja.clone();
+            this.filas = new int[r.numCajas][];
+            for (int i = 0; i < r.numCajas; i++) {
+                filas[i] = r.filas[i].copiar();
+            }
+            this.filaGeneral = r.filaGeneral.copiar();
+            this.cajasAbiertas = r.cajasAbiertas;
+            this.clientesAtendidos = r.clientesAtendidos;
+            this.sumaEspera = r.sumaEspera;
+            this.sumaPago = r.sumaPago;
+        }
+    }
+}
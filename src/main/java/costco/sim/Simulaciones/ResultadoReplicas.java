@@ -0,0 +1,70 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Estadistica;
+import costco.sim.logica.IntervaloConfianza;
+
+/**
+ * Resultado combinado de muchas réplicas independientes de una simulación
+ */
+public class ResultadoReplicas {
+
+    private final Estadistica combinada;
+    private final double[] esperasPromedio;
+    private final IntervaloConfianza esperaPromedio;
+    private final IntervaloConfianza esperaMaxima;
+    private final double segundos;
+
+    public ResultadoReplicas(Estadistica combinada, double[] esperasPromedio, double[] esperasMaximas,
+                             double segundos) {
+        this.combinada = combinada;
+        this.esperasPromedio = esperasPromedio;
+        this.esperaPromedio = new IntervaloConfianza(esperasPromedio);
+        this.esperaMaxima = new IntervaloConfianza(esperasMaximas);
+        this.segundos = segundos;
+    }
+
+    public int getReplicas() {
+        return esperaPromedio.getTamanioMuestra();
+    }
+
+    public Estadistica getEstadisticaCombinada() {
+        return combinada;
+    }
+
+    public IntervaloConfianza getEsperaPromedio() {
+        return esperaPromedio;
+    }
+
+    /**
+     * Espera promedio de cada réplica, en el orden de sus semillas
+     */
+    public double[] getEsperasPromedio() {
+        return esperasPromedio;
+    }
+
+    public IntervaloConfianza getEsperaMaxima() {
+        return esperaMaxima;
+    }
+
+    public double getSegundos() {
+        return segundos;
+    }
+
+    public String generarReporte() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(combinada.generarReporte());
+        sb.append(String.format("RÉPLICAS: %d  (%.2f s)\n", getReplicas(), segundos));
+        sb.append(String.format("  Espera promedio (IC 95%%): %s min\n", esperaPromedio));
+        sb.append(String.format("  Espera máxima   (IC 95%%): %s min\n", esperaMaxima));
+        sb.append("\n-----------------------------------------------\n");
+
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultadoReplicas[replicas=%d, esperaProm=%s, esperaMax=%s]",
+                getReplicas(), esperaPromedio, esperaMaxima);
+    }
+}
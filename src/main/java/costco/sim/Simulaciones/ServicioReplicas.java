@@ -0,0 +1,115 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Estadistica;
+import costco.sim.logica.IntervaloConfianza;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+/**
+ * Corre muchas réplicas independientes de una simulación en un ForkJoinPool.
+ * Cada réplica recibe una semilla derivada con SplittableRandom, y las réplicas
+ * se agrupan en bloques de tamaño fijo que se combinan en orden, así que el
+ * resultado es el mismo sin importar cuántos hilos se usen.
+ */
+public class ServicioReplicas {
+
+    private static final int REPLICAS_POR_BLOQUE = 32;
+
+    private final ForkJoinPool pool;
+
+    public ServicioReplicas() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ServicioReplicas(int hilos) {
+        this.pool = new ForkJoinPool(hilos);
+    }
+
+    /**
+     * Semillas de las réplicas, cada una de un flujo SplittableRandom independiente.
+     * Con una sola réplica es la semilla dada, para que esa corrida se pueda repetir.
+     */
+    public static long[] derivarSemillas(long semilla, int replicas) {
+        if (replicas == 1) {
+            return new long[]{semilla};
+        }
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        long[] semillas = new long[replicas];
+        for (int i = 0; i < replicas; i++) {
+            semillas[i] = raiz.split().nextLong();
+        }
+        return semillas;
+    }
+
+    public ResultadoReplicas ejecutar(LongFunction<Simulacion> fabrica, long semilla, int replicas) {
+        long inicio = System.nanoTime();
+
+        long[] semillas = derivarSemillas(semilla, replicas);
+        double[] esperasPromedio = new double[replicas];
+        double[] esperasMaximas = new double[replicas];
+
+        List<Callable<Estadistica>> bloques = new ArrayList<>();
+        for (int desde = 0; desde < replicas; desde += REPLICAS_POR_BLOQUE) {
+            int inicioBloque = desde;
+            int finBloque = Math.min(desde + REPLICAS_POR_BLOQUE, replicas);
+
+            bloques.add(() -> {
+                Estadistica acumulada = new Estadistica();
+                for (int i = inicioBloque; i < finBloque; i++) {
+                    Simulacion simulacion = fabrica.apply(semillas[i]);
+                    simulacion.ejecutarCompleta();
+
+                    Estadistica estadistica = simulacion.getEstadisticas();
+                    esperasPromedio[i] = estadistica.getTiempoPromedioEspera();
+                    esperasMaximas[i] = estadistica.getTiempoMaximoEspera();
+                    acumulada.combinar(estadistica);
+                }
+                return acumulada;
+            });
+        }
+
+        Estadistica combinada = new Estadistica();
+        try {
+            for (Future<Estadistica> bloque : pool.invokeAll(bloques)) {
+                combinada.combinar(bloque.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Réplicas interrumpidas", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló una réplica: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        return new ResultadoReplicas(combinada, esperasPromedio, esperasMaximas,
+                (System.nanoTime() - inicio) / 1e9);
+    }
+
+    /**
+     * Corre ambas estrategias con las mismas semillas y da el intervalo de la
+     * diferencia pareada de espera promedio (A - B). Al compartir los números
+     * aleatorios la varianza de la diferencia es mucho menor que con corridas
+     * independientes.
+     */
+    public IntervaloConfianza comparar(LongFunction<Simulacion> fabricaA, LongFunction<Simulacion> fabricaB,
+                                       long semilla, int replicas) {
+        double[] esperasA = ejecutar(fabricaA, semilla, replicas).getEsperasPromedio();
+        double[] esperasB = ejecutar(fabricaB, semilla, replicas).getEsperasPromedio();
+
+        double[] diferencias = new double[replicas];
+        for (int i = 0; i < replicas; i++) {
+            diferencias[i] = esperasA[i] - esperasB[i];
+        }
+        return new IntervaloConfianza(diferencias);
+    }
+
+    public void cerrar() {
+        pool.shutdown();
+    }
+}
@@ -1,37 +1,89 @@
 package costco.sim.Simulaciones;
 
+import costco.sim.logica.AgregadoTienda;
+import costco.sim.logica.AlmacenClientes;
 import costco.sim.logica.Caja;
 import costco.sim.logica.Cliente;
+import costco.sim.logica.Cola;
+import costco.sim.logica.Escenario;
 import costco.sim.logica.Estadistica;
-
+import costco.sim.logica.FlujoAleatorio;
+import costco.sim.logica.ObservadorPagos;
+import costco.sim.logica.RegistroEventos;
+import costco.sim.logica.TipoRegistro;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 /**
- * Clase abstracta base para las simulaciones de Costco
+ * Clase abstracta base para las simulaciones de Costco.
+ * El tiempo es continuo y avanza de evento en evento (llegadas, fin de pago
+ * y revisión de cajas cada minuto) usando un MotorEventos.
  */
 public abstract class Simulacion {
 
-    private static final double TIEMPO_LLEGADA_MIN = 0.5;
-    private static final double TIEMPO_LLEGADA_MAX = 1.0;
-    protected static final int TIEMPO_SIMULACION = 600;  // 10 horas en minutos
-    protected static final int NUM_CAJAS = 12;
-    protected static final int UMBRAL_ABRIR_CAJA = 4;
-    protected static final int UMBRAL_CERRAR_CAJA = 3;
-
-    protected Random random;
-    protected int tiempoActual;
+    protected final Escenario escenario;
+    protected long semilla;
+    protected final RandomGeneratorFactory<SplittableGenerator> fabricaAleatoria;
+    protected RandomGenerator randomLlegadas;
+    // Raíz de la que se divide el flujo de pagos de cada caja
+    protected SplittableGenerator randomPagos;
+    protected double tiempoActual;
+    // Infinito si ya no hay llegada programada
     protected double tiempoProximaLlegada;
+    protected double tiempoProximaRevision;
+    protected MotorEventos eventos;
     protected int contadorClientes;
 
     protected Estadistica estadisticas;
     protected ArrayList<Caja> cajas;
+    protected IndiceCajas indiceCajas;
+    protected AgregadoTienda agregado;
+    // Cada caja avisa aquí al empezar un pago para programar su fin
+    final ObservadorPagos agendaPagos = this::programarFinPago;
+
+    // Solo en modo columnar: datos de clientes terminados y objetos para reutilizar
+    protected AlmacenClientes almacenClientes;
+    private Cola<Cliente> clientesLibres;
+
+    // Destino del registro de eventos; null si no se está grabando
+    protected RegistroEventos registro;
+
+    // null = los fines de pago se atienden uno por uno
+    private PagosEnParalelo pagosEnParalelo;
 
     protected boolean enEjecucion;
     protected boolean terminada;
 
     public Simulacion() {
-        this.random = new Random();
+        this(System.nanoTime(), Escenario.porDefecto());
+    }
+
+    /**
+     * Simulación reproducible con una semilla y un escenario dados.
+     * Con la misma semilla, fila única y múltiples filas ven las mismas llegadas
+     * y cada caja la misma secuencia de tiempos de pago (números aleatorios comunes).
+     */
+    public Simulacion(long semilla, Escenario escenario) {
+        this(semilla, escenario, FlujoAleatorio.fabricaPorDefecto());
+    }
+
+    /**
+     * Como Simulacion(semilla, escenario), con los flujos aleatorios sacados de
+     * generadores de la fábrica dada (que deben poder dividirse)
+     */
+    public Simulacion(long semilla, Escenario escenario,
+                      RandomGeneratorFactory<SplittableGenerator> fabricaAleatoria) {
+        this.escenario = escenario;
+        this.semilla = semilla;
+        this.fabricaAleatoria = fabricaAleatoria;
+        derivarFlujosAleatorios();
         this.tiempoActual = 0;
         this.contadorClientes = 1;
         this.enEjecucion = false;
@@ -39,12 +91,11 @@ public abstract class Simulacion {
 
         this.estadisticas = new Estadistica();
 
-        this.cajas = new ArrayList<>();
-        for (int i = 1; i <= NUM_CAJAS; i++) {
-            cajas.add(new Caja(i));
-        }
+        this.cajas = new ArrayList<>(escenario.numCajas());
+        crearCajas();
 
-        this.tiempoProximaLlegada = generarTiempoLlegada();
+        this.eventos = new MotorEventos();
+        programarEventosIniciales();
     }
 
     public void iniciar() {
@@ -56,7 +107,19 @@ public abstract class Simulacion {
         this.enEjecucion = false;
     }
 
+    /**
+     * Reinicia la jornada con otra semilla
+     */
+    public void reiniciar(long semilla) {
+        this.semilla = semilla;
+        reiniciar();
+    }
+
+    /**
+     * Reinicia la jornada; con la misma semilla se repite exactamente
+     */
     public void reiniciar() {
+        derivarFlujosAleatorios();
         this.tiempoActual = 0;
         this.contadorClientes = 1;
         this.enEjecucion = false;
@@ -64,116 +127,373 @@ public abstract class Simulacion {
 
         this.estadisticas = new Estadistica();
 
+        // La grabación cubre una sola jornada
+        this.registro = null;
+
         this.cajas.clear();
-        for (int i = 1; i <= NUM_CAJAS; i++) {
-            cajas.add(new Caja(i));
+        crearCajas();
+
+        this.eventos.limpiar();
+        if (almacenClientes != null) {
+            almacenClientes.limpiar();
+        }
+        programarEventosIniciales();
+    }
+
+    private void crearCajas() {
+        this.agregado = new AgregadoTienda();
+        for (int i = 1; i <= escenario.numCajas(); i++) {
+            Caja caja = new Caja(i, escenario, new FlujoAleatorio(randomPagos.split()));
+            caja.setAgregado(agregado);
+            caja.setObservadorPagos(agendaPagos);
+            cajas.add(caja);
+        }
+        this.indiceCajas = new IndiceCajas(cajas, escenario.umbralAbrirCaja(), escenario.maxClientesPorCaja());
+    }
+
+    /**
+     * Escribe todo lo necesario para seguir la jornada desde este instante:
+     * reloj, contadores, cuánto avanzó cada flujo aleatorio, estadísticas, cajas con sus filas,
+     * agenda de eventos y lo propio de la estrategia. Lo usa PuntoControl.
+     */
+    void escribirEstado(DataOutput salida) throws IOException {
+        salida.writeDouble(tiempoActual);
+        salida.writeDouble(tiempoProximaLlegada);
+        salida.writeDouble(tiempoProximaRevision);
+        salida.writeInt(contadorClientes);
+        salida.writeBoolean(terminada);
+
+        if (!(randomLlegadas instanceof FlujoAleatorio flujoLlegadas)) {
+            throw new IllegalStateException("El generador de llegadas no tiene estado guardable");
+        }
+        salida.writeLong(flujoLlegadas.getUsados());
+
+        estadisticas.escribirEstado(salida);
+        for (Caja caja : cajas) {
+            caja.escribirEstado(salida);
+        }
+        eventos.escribirEstado(salida);
+        escribirEstadoFilas(salida);
+    }
+
+    /**
+     * Retoma lo que escribió escribirEstado en una simulación con la misma semilla
+     * y fábrica aleatoria. Los flujos se vuelven a derivar y se adelantan hasta
+     * donde habían quedado; las cajas se vuelven a crear con el escenario de esta
+     * simulación y el agregado y el índice se reconstruyen a partir de ellas.
+     * Queda pausada y sin registro de eventos.
+     */
+    void leerEstado(DataInput entrada) throws IOException {
+        this.tiempoActual = entrada.readDouble();
+        this.tiempoProximaLlegada = entrada.readDouble();
+        this.tiempoProximaRevision = entrada.readDouble();
+        this.contadorClientes = entrada.readInt();
+        this.terminada = entrada.readBoolean();
+        this.enEjecucion = false;
+        setRegistro(null);
+
+        derivarFlujosAleatorios();
+        ((FlujoAleatorio) randomLlegadas).adelantar(entrada.readLong());
+
+        this.estadisticas = new Estadistica();
+        estadisticas.leerEstado(entrada);
+
+        this.cajas.clear();
+        this.agregado = new AgregadoTienda();
+        for (int i = 1; i <= escenario.numCajas(); i++) {
+            Caja caja = new Caja(i, escenario, new FlujoAleatorio(randomPagos.split()));
+            caja.leerEstado(entrada);
+            if (caja.estaAbierta()) {
+                agregado.ajustarCajasAbiertas(1);
+            }
+            agregado.ajustarClientesEnCola(caja.cantidadClientesEsperando());
+            agregado.ajustarClientesPagando(caja.tieneClientePagando() ? 1 : 0);
+            caja.setAgregado(agregado);
+            caja.setObservadorPagos(agendaPagos);
+            cajas.add(caja);
+        }
+        this.indiceCajas = new IndiceCajas(cajas, escenario.umbralAbrirCaja(), escenario.maxClientesPorCaja());
+
+        eventos.leerEstado(entrada, cajas);
+        leerEstadoFilas(entrada);
+
+        if (almacenClientes != null) {
+            almacenClientes.limpiar();
+        }
+    }
+
+    /**
+     * Estado propio de la estrategia (por ejemplo la fila general); por defecto nada
+     */
+    protected void escribirEstadoFilas(DataOutput salida) throws IOException {
+    }
+
+    protected void leerEstadoFilas(DataInput entrada) throws IOException {
+    }
+
+    /**
+     * Activa el modo columnar: los clientes que terminan se copian a un
+     * AlmacenClientes y su objeto se reutiliza para la siguiente llegada,
+     * así una corrida larga casi no genera basura.
+     * No usar con la interfaz gráfica, que identifica a los clientes por su objeto.
+     */
+    public void usarAlmacenColumnar(int capacidadInicial) {
+        this.almacenClientes = new AlmacenClientes(capacidadInicial);
+        this.clientesLibres = new Cola<>(64, true);
+    }
+
+    public AlmacenClientes getAlmacenClientes() {
+        return almacenClientes;
+    }
+
+    /**
+     * Con filas por caja, atiende en el pool los fines de pago que caen entre
+     * dos eventos de toda la tienda (llegadas y revisiones), repartiendo las
+     * cajas entre hilos. Los resultados son los mismos que en secuencia.
+     * No tiene efecto con fila única ni mientras se graba un registro de eventos.
+     * null vuelve al modo secuencial.
+     */
+    public void usarCajasEnParalelo(ForkJoinPool pool) {
+        this.pagosEnParalelo = pool != null ? new PagosEnParalelo(pool) : null;
+    }
+
+    /**
+     * true si entre llegadas y revisiones cada caja avanza sin tocar a las demás
+     */
+    protected boolean cajasIndependientes() {
+        return false;
+    }
+
+    /**
+     * Manda cada transición de la jornada (de la simulación y de sus cajas) al
+     * registro, o deja de registrar con null. Normalmente lo llama GrabadorEventos.
+     */
+    public void setRegistro(RegistroEventos registro) {
+        this.registro = registro;
+        for (Caja caja : cajas) {
+            caja.setRegistro(registro);
+        }
+    }
+
+    protected void registrar(TipoRegistro tipo, int idCliente) {
+        if (registro != null) {
+            registro.registrar(tipo, 0, idCliente);
+        }
+    }
+
+    /**
+     * Flujos separados para llegadas y pagos, divididos de un generador de la
+     * fábrica con la semilla, para que un cambio en cómo se atiende a los clientes
+     * no altere las llegadas. Cada caja recibe su propio flujo de pagos (en crearCajas).
+     */
+    private void derivarFlujosAleatorios() {
+        SplittableGenerator raiz = fabricaAleatoria.create(semilla);
+        this.randomLlegadas = new FlujoAleatorio(raiz.split());
+        this.randomPagos = raiz.split();
+    }
+
+    /**
+     * Sigue la jornada con flujos nuevos derivados de otra semilla,
+     * uno de llegadas y uno por caja como al empezar
+     */
+    void cambiarFlujosAleatorios(long semilla) {
+        this.semilla = semilla;
+        derivarFlujosAleatorios();
+        for (Caja caja : cajas) {
+            caja.setGenerador(new FlujoAleatorio(randomPagos.split()));
         }
+    }
 
-        this.tiempoProximaLlegada = generarTiempoLlegada();
+    private void programarEventosIniciales() {
+        this.tiempoProximaLlegada = generarSiguienteLlegada();
+        if (tiempoProximaLlegada < escenario.tiempoSimulacion()) {
+            eventos.programar(tiempoProximaLlegada, TipoEvento.LLEGADA, null);
+        } else {
+            tiempoProximaLlegada = Double.POSITIVE_INFINITY;
+        }
+        this.tiempoProximaRevision = 1;
+        eventos.programar(tiempoProximaRevision, TipoEvento.REVISION_CAJAS, null);
     }
 
     /**
      * avanza un minuto
      */
     public void avanzarTiempo() {
+        avanzarHasta(Math.floor(tiempoActual) + 1);
+    }
+
+    /**
+     * Atiende todos los eventos programados hasta tiempoObjetivo (inclusive)
+     */
+    public void avanzarHasta(double tiempoObjetivo) {
         if (!enEjecucion || terminada) {
             return;
         }
 
-        tiempoActual++;
+        while (!terminada && eventos.tiempoSiguiente() <= tiempoObjetivo) {
+            if (!procesarPagosEnParalelo(tiempoObjetivo)) {
+                procesarEvento(eventos.siguiente());
+            }
+        }
 
-        procesarPagosEnCajas();
+        if (!terminada) {
+            tiempoActual = tiempoObjetivo;
+        }
+    }
 
-        gestionarCajas();
+    /**
+     * Corre la jornada completa saltando de evento en evento, sin pausas
+     */
+    public void ejecutarCompleta() {
+        iniciar();
+        while (!terminada && !eventos.estaVacia()) {
+            if (!procesarPagosEnParalelo(Double.POSITIVE_INFINITY)) {
+                procesarEvento(eventos.siguiente());
+            }
+        }
+    }
+
+    /**
+     * Si el modo paralelo aplica, atiende de golpe los fines de pago que vienen
+     * antes del siguiente evento de toda la tienda; false si no atendió ninguno
+     */
+    private boolean procesarPagosEnParalelo(double tiempoObjetivo) {
+        if (pagosEnParalelo == null || registro != null || !cajasIndependientes()) {
+            return false;
+        }
+        double horizonte = Math.min(tiempoProximaLlegada, tiempoProximaRevision);
+        double ultimo = pagosEnParalelo.procesar(this, horizonte, tiempoObjetivo);
+        if (Double.isNaN(ultimo)) {
+            return false;
+        }
+        tiempoActual = ultimo;
+        return true;
+    }
 
+    protected void procesarEvento(Evento evento) {
+        tiempoActual = evento.getTiempo();
 
-        if (tiempoActual < TIEMPO_SIMULACION && tiempoActual >= tiempoProximaLlegada) {
+        switch (evento.getTipo()) {
+            case LLEGADA -> atenderLlegada();
+            case FIN_PAGO -> atenderFinPago(evento.getCaja());
+            case REVISION_CAJAS -> atenderRevisionCajas();
+        }
+    }
+
+    private void atenderLlegada() {
+        // Un evento de llegada admite al grupo completo y programa la siguiente llegada;
+        // el tiempo es continuo, así varias llegadas en el mismo minuto no se pierden
+        int grupo = escenario.llegadas().tamanioGrupo(randomLlegadas);
+        for (int i = 0; i < grupo; i++) {
             Cliente nuevoCliente = generarNuevoCliente();
+            registrar(TipoRegistro.LLEGADA, nuevoCliente.getId());
             procesarLlegadaCliente(nuevoCliente);
-            tiempoProximaLlegada = tiempoActual + generarTiempoLlegada();
         }
 
-        if (tiempoActual >= TIEMPO_SIMULACION && todasCajasVacias()) {
+        despacharClientes();
+
+        double siguienteLlegada = generarSiguienteLlegada();
+        if (siguienteLlegada < escenario.tiempoSimulacion()) {
+            tiempoProximaLlegada = siguienteLlegada;
+            eventos.programar(siguienteLlegada, TipoEvento.LLEGADA, null);
+        } else {
+            tiempoProximaLlegada = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private void atenderFinPago(Caja caja) {
+        // La caja misma empieza con el siguiente de su fila
+        Cliente clienteTerminado = caja.procesarPago(tiempoActual);
+
+        if (clienteTerminado != null) {
+            registrarTerminado(clienteTerminado);
+        }
+
+        despacharClientes();
+    }
+
+    void registrarTerminado(Cliente clienteTerminado) {
+        estadisticas.registrarCliente(clienteTerminado);
+
+        if (almacenClientes != null) {
+            almacenClientes.registrar(clienteTerminado);
+            clientesLibres.insertar(clienteTerminado);
+        }
+    }
+
+    private void atenderRevisionCajas() {
+        gestionarCajas();
+
+        if (tiempoActual >= escenario.tiempoSimulacion() && todasCajasVacias()) {
             terminada = true;
             enEjecucion = false;
+            return;
         }
+
+        tiempoProximaRevision = tiempoActual + 1;
+        eventos.programar(tiempoProximaRevision, TipoEvento.REVISION_CAJAS, null);
     }
 
 
     protected Cliente generarNuevoCliente() {
-        Cliente cliente = new Cliente(contadorClientes);
+        Cliente cliente;
+        if (clientesLibres != null && !clientesLibres.estaVacia()) {
+            cliente = clientesLibres.eliminar();
+            cliente.reiniciar(contadorClientes);
+        } else {
+            cliente = new Cliente(contadorClientes);
+        }
         cliente.iniciarEspera(tiempoActual);
         contadorClientes++;
         return cliente;
     }
 
-    protected double generarTiempoLlegada() {
-        return TIEMPO_LLEGADA_MIN +
-                (random.nextDouble() * (TIEMPO_LLEGADA_MAX - TIEMPO_LLEGADA_MIN));
+    /**
+     * Tiempo absoluto de la siguiente llegada según el proceso del escenario
+     */
+    protected double generarSiguienteLlegada() {
+        return escenario.llegadas().siguienteLlegada(tiempoActual, randomLlegadas);
     }
 
-    protected void procesarPagosEnCajas() {
-        for (Caja caja : cajas) {
-            if (caja.estaAbierta()) {
-                Cliente clienteTerminado = caja.procesarPago(tiempoActual, random);
+    /**
+     * Las cajas empiezan cada pago por su cuenta (al formarse un cliente en una
+     * caja libre o al terminar el anterior) y avisan aquí para agendar su fin
+     */
+    private void programarFinPago(Caja caja) {
+        eventos.programar(caja.getClienteActualPagando().getTiempoFinPago(), TipoEvento.FIN_PAGO, caja);
+    }
 
-                if (clienteTerminado != null) {
-                    estadisticas.registrarCliente(clienteTerminado);
-                }
-            }
-        }
+    /**
+     * Se llama tras cada llegada y cada fin de pago para mover clientes
+     * hacia las cajas. Por defecto no hace nada.
+     */
+    protected void despacharClientes() {
     }
 
     protected boolean todasCajasVacias() {
-        for (Caja caja : cajas) {
-            if (!caja.estaVacia()) {
-                return false;
-            }
-        }
-        return true;
+        return agregado.getClientesEnCajas() == 0;
     }
 
 
     protected boolean abrirSiguienteCaja() {
-        for (Caja caja : cajas) {
-            if (!caja.estaAbierta()) {
-                caja.abrir(tiempoActual);
-                return true;
-            }
+        int indice = indiceCajas.primeraCerrada();
+        if (indice == -1) {
+            return false;
         }
-        return false;
+        cajas.get(indice).abrir(tiempoActual);
+        return true;
     }
 
     protected void cerrarCajaVacia() {
-        // Cerrar de atrás hacia adelante
-        for (int i = cajas.size() - 1; i >= 0; i--) {
-            Caja caja = cajas.get(i);
-            if (caja.estaAbierta() && caja.cantidadClientes()==0) {
-                // Solo cerrar si hay más de 2 cajas abiertas
-                if (getCajasAbiertas() > 2) {
-                    caja.cerrar(tiempoActual);
-                    return;
-                }
-            }
+        // Cerrar de atrás hacia adelante, solo si hay más de 2 cajas abiertas
+        int indice = indiceCajas.ultimaAbiertaVacia();
+        if (indice != -1 && getCajasAbiertas() > 2) {
+            cajas.get(indice).cerrar(tiempoActual);
         }
     }
 
     protected int encontrarCajaMenosOcupada() {
-        int indiceMejor = -1;
-        int menorCantidad = Integer.MAX_VALUE;
-
-        for (int i = 0; i < cajas.size(); i++) {
-            Caja caja = cajas.get(i);
-            if (caja.estaAbierta() && !caja.colaLlena()) {
-                int cantidad = caja.cantidadClientes();
-                if (cantidad < menorCantidad) {
-                    menorCantidad = cantidad;
-                    indiceMejor = i;
-                }
-            }
-        }
-
-        return indiceMejor;
+        return indiceCajas.cajaMenosOcupada();
     }
 
 
@@ -187,37 +507,53 @@ public abstract class Simulacion {
         int totalClientes = getClientesEsperandoTotal();
         double promedio = (double) totalClientes / cajasAbiertas;
 
-        if (promedio <= UMBRAL_CERRAR_CAJA) {
+        if (promedio <= escenario.umbralCerrarCaja()) {
             cerrarCajaVacia();
         }
     }
 
     public int getTiempoActual() {
+        return (int) tiempoActual;
+    }
+
+    public double getTiempoActualExacto() {
         return tiempoActual;
     }
 
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public RandomGeneratorFactory<SplittableGenerator> getFabricaAleatoria() {
+        return fabricaAleatoria;
+    }
+
+    public int getTiempoSimulacion() {
+        return escenario.tiempoSimulacion();
+    }
+
+    public Escenario getEscenario() {
+        return escenario;
+    }
+
     public int getClientesAtendidosActual() {
         return estadisticas.getTotalClientesAtendidos();
     }
 
     public int getClientesEsperandoTotal() {
-        int total = 0;
-        for (Caja caja : cajas) {
-            if (caja.estaAbierta()) {
-                total += caja.cantidadClientes();
-            }
-        }
-        return total;
+        return agregado.getClientesEnCajas();
+    }
+
+    public int getClientesPagando() {
+        return agregado.getClientesPagando();
     }
 
     public int getCajasAbiertas() {
-        int abiertas = 0;
-        for (Caja caja : cajas) {
-            if (caja.estaAbierta()) {
-                abiertas++;
-            }
-        }
-        return abiertas;
+        return agregado.getCajasAbiertas();
+    }
+
+    public AgregadoTienda getAgregado() {
+        return agregado;
     }
 
     public Caja getCaja(int numeroCaja) {
@@ -255,10 +591,10 @@ public abstract class Simulacion {
     public String toString() {
         return String.format("%s[tiempo=%d min, clientes=%d, cajas=%d/%d, estado=%s]",
                 getClass().getSimpleName(),
-                tiempoActual,
+                getTiempoActual(),
                 getClientesAtendidosActual(),
                 getCajasAbiertas(),
-                NUM_CAJAS,
+                cajas.size(),
                 terminada ? "TERMINADA" : (enEjecucion ? "EJECUTANDO" : "PAUSADA"));
     }
 }
\ No newline at end of file
@@ -3,34 +3,51 @@ package costco.sim.Simulaciones;
 import costco.sim.logica.Caja;
 import costco.sim.logica.Cliente;
 import costco.sim.logica.Cola;
+import costco.sim.logica.Escenario;
+import costco.sim.logica.TipoRegistro;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 /**
  * Simulación de modo fila unica
  */
 public class SimulacionFilaUnica extends Simulacion {
 
-    private static final int MAX_CLIENTES_POR_CAJA = 3;
-    private static final int CAPACIDAD_FILA_GENERAL = 100;
-    private static final int CAJAS_INICIALES = 2;
+    // Cada tantos clientes en la tienda se permiten dos cajas abiertas más
+    private static final int CLIENTES_POR_NIVEL = 8;
     private Cola<Cliente> filaGeneral;
 
 
     public SimulacionFilaUnica() {
         super();
-        this.filaGeneral = new Cola<>(CAPACIDAD_FILA_GENERAL);
+        prepararJornada();
+    }
 
+    public SimulacionFilaUnica(long semilla, Escenario escenario) {
+        super(semilla, escenario);
+        prepararJornada();
+    }
 
-        for (int i = 0; i < CAJAS_INICIALES && i < cajas.size(); i++) {
-            cajas.get(i).abrir(0);
-        }
+    public SimulacionFilaUnica(long semilla, Escenario escenario,
+                               RandomGeneratorFactory<SplittableGenerator> fabricaAleatoria) {
+        super(semilla, escenario, fabricaAleatoria);
+        prepararJornada();
     }
 
     @Override
     public void reiniciar() {
         super.reiniciar();
-        this.filaGeneral = new Cola<>(CAPACIDAD_FILA_GENERAL);
+        prepararJornada();
+    }
 
-        for (int i = 0; i < CAJAS_INICIALES && i < cajas.size(); i++) {
+    private void prepararJornada() {
+        this.filaGeneral = Cola.conCapacidad(escenario.capacidadFilaGeneral());
+
+        for (int i = 0; i < escenario.cajasIniciales() && i < cajas.size(); i++) {
             cajas.get(i).abrir(0);
         }
     }
@@ -41,6 +58,7 @@ public class SimulacionFilaUnica extends Simulacion {
         if (!filaGeneral.estaLlena()) {
             cliente.entrarFilaGeneral();
             filaGeneral.insertar(cliente);
+            registrar(TipoRegistro.FILA_GENERAL, cliente.getId());
         }
     }
 
@@ -55,40 +73,53 @@ public class SimulacionFilaUnica extends Simulacion {
     private void evaluarAperturaCaja() {
         int totalClientes = filaGeneral.tamanio() + getClientesEsperandoTotal();
 
-        if (totalClientes >= 8 && getCajasAbiertas() < 4) {
-            abrirSiguienteCaja();
-        } else if (totalClientes >= 16 && getCajasAbiertas() < 6) {
-            abrirSiguienteCaja();
-        } else if (totalClientes >= 24 && getCajasAbiertas() < 8) {
-            abrirSiguienteCaja();
-        } else if (totalClientes >= 32 && getCajasAbiertas() < 10) {
-            abrirSiguienteCaja();
-        } else if (totalClientes >= 40 && getCajasAbiertas() < 12) {
+        // 8+ clientes permiten 4 cajas, 16+ permiten 6, 24+ permiten 8... hasta todas
+        int nivel = totalClientes / CLIENTES_POR_NIVEL;
+        int limiteCajas = Math.min(2 * nivel + 2, cajas.size());
+        if (nivel >= 1 && getCajasAbiertas() < limiteCajas) {
             abrirSiguienteCaja();
         }
 
         // También abrir si alguna caja está llena y hay fila general
-        if (filaGeneral.tamanio() > 0) {
-            for (Caja caja : cajas) {
-                if (caja.estaAbierta() && caja.cantidadClientes() >= MAX_CLIENTES_POR_CAJA) {
-                    if (abrirSiguienteCaja()) {
-                        //System.out.println("Caja abierta porque caja " + caja.getNumeroCaja() + " está llena");
-                    }
-                    break;
-                }
-            }
+        if (filaGeneral.tamanio() > 0 && indiceCajas.getCajasLlenas() > 0) {
+            abrirSiguienteCaja();
         }
     }
 
 
+    @Override
+    protected void despacharClientes() {
+        asignarClientesACajas();
+    }
+
     private void asignarClientesACajas() {
-        for (Caja caja : cajas) {
-            // Mientras la caja tenga espacio Y haya clientes en fila general
-            while (caja.estaAbierta() &&  caja.cantidadClientes() < MAX_CLIENTES_POR_CAJA && !caja.colaLlena() && !filaGeneral.estaVacia()) {
-                Cliente cliente = filaGeneral.eliminar();
-                caja.agregarCliente(cliente);
+        // Siempre a la caja abierta de menor número que todavía tenga espacio
+        while (!filaGeneral.estaVacia()) {
+            int indice = indiceCajas.primeraConLugar();
+            if (indice == -1) {
+                return;
             }
+            cajas.get(indice).agregarCliente(filaGeneral.eliminar(), tiempoActual);
+        }
+    }
+
+    @Override
+    protected void escribirEstadoFilas(DataOutput salida) throws IOException {
+        salida.writeInt(filaGeneral.tamanio());
+        for (Cliente cliente : filaGeneral) {
+            cliente.escribirEstado(salida);
+        }
+    }
 
+    @Override
+    protected void leerEstadoFilas(DataInput entrada) throws IOException {
+        this.filaGeneral = Cola.conCapacidad(escenario.capacidadFilaGeneral());
+        int enFila = entrada.readInt();
+        for (int i = 0; i < enFila; i++) {
+            if (!filaGeneral.insertar(Cliente.leerEstado(entrada))) {
+                throw new IllegalArgumentException("La fila general no cabe en la capacidad del escenario ("
+                        + enFila + " clientes)");
+            }
         }
     }
 
@@ -102,15 +133,14 @@ public class SimulacionFilaUnica extends Simulacion {
     }
 
     public Cliente[] getClientesFilaGeneralArray() {
-        Cola<Cliente> copia = new Cola<>(filaGeneral);
-        int cantidad = copia.tamanio();
-        Cliente[] arreglo = new Cliente[cantidad];
-
-        for (int i = 0; i < cantidad; i++) {
-            arreglo[i] = copia.eliminar();
-        }
+        return filaGeneral.toArray(new Cliente[filaGeneral.tamanio()]);
+    }
 
-        return arreglo;
+    /**
+     * Igual que getClientesFilaGeneralArray pero reutilizando el arreglo recibido
+     */
+    public Cliente[] getClientesFilaGeneralArray(Cliente[] reuso) {
+        return filaGeneral.toArray(reuso);
     }
 
 
@@ -120,9 +150,9 @@ public class SimulacionFilaUnica extends Simulacion {
 
         sb.append("========== FILA ÚNICA ==========\n");
         sb.append(String.format("Tiempo: %d min (%d horas %d min)\n",
-                tiempoActual, tiempoActual / 60, tiempoActual % 60));
+                getTiempoActual(), getTiempoActual() / 60, getTiempoActual() % 60));
         sb.append(String.format("Clientes en fila general: %d\n", filaGeneral.tamanio()));
-        sb.append(String.format("Cajas abiertas: %d/%d\n\n", getCajasAbiertas(), NUM_CAJAS));
+        sb.append(String.format("Cajas abiertas: %d/%d\n\n", getCajasAbiertas(), cajas.size()));
 
         // Mostrar cajas abiertas
         for (Caja caja : cajas) {
@@ -144,10 +174,10 @@ public class SimulacionFilaUnica extends Simulacion {
     @Override
     public String toString() {
         return String.format("SimulacionFilaUnica[tiempo=%d min, filaGeneral=%d, cajas=%d/%d, atendidos=%d]",
-                tiempoActual,
+                getTiempoActual(),
                 filaGeneral.tamanio(),
                 getCajasAbiertas(),
-                NUM_CAJAS,
+                cajas.size(),
                 getClientesAtendidosActual());
     }
 }
\ No newline at end of file
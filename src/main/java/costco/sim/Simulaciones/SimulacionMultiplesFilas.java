@@ -2,6 +2,10 @@ package costco.sim.Simulaciones;
 
 import costco.sim.logica.Caja;
 import costco.sim.logica.Cliente;
+import costco.sim.logica.Escenario;
+
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 /**
  * Simulación con estrategia de MÚLTIPLES FILAS
@@ -10,23 +14,30 @@ import costco.sim.logica.Cliente;
  */
 public class SimulacionMultiplesFilas extends Simulacion {
 
-    private static final int CAJAS_INICIALES = 2;
-
     public SimulacionMultiplesFilas() {
         super();
+        abrirCajasIniciales();
+    }
 
-        // Abrir cajas iniciales
-        for (int i = 0; i < CAJAS_INICIALES && i < cajas.size(); i++) {
-            cajas.get(i).abrir(0);
-        }
+    public SimulacionMultiplesFilas(long semilla, Escenario escenario) {
+        super(semilla, escenario);
+        abrirCajasIniciales();
+    }
+
+    public SimulacionMultiplesFilas(long semilla, Escenario escenario,
+                                    RandomGeneratorFactory<SplittableGenerator> fabricaAleatoria) {
+        super(semilla, escenario, fabricaAleatoria);
+        abrirCajasIniciales();
     }
 
     @Override
     public void reiniciar() {
         super.reiniciar();
+        abrirCajasIniciales();
+    }
 
-        // Abrir cajas iniciales
-        for (int i = 0; i < CAJAS_INICIALES && i < cajas.size(); i++) {
+    private void abrirCajasIniciales() {
+        for (int i = 0; i < escenario.cajasIniciales() && i < cajas.size(); i++) {
             cajas.get(i).abrir(0);
         }
     }
@@ -38,17 +49,12 @@ public class SimulacionMultiplesFilas extends Simulacion {
         if (indiceCajaMenosOcupada != -1) {
             // Asignar a la caja menos ocupada
             Caja caja = cajas.get(indiceCajaMenosOcupada);
-            caja.agregarCliente(cliente);
+            caja.agregarCliente(cliente, tiempoActual);
         } else {
             // No hay cajas disponibles, abrir una nueva
             if (abrirSiguienteCaja()) {
                 // Asignar a la primera caja abierta disponible
-                for (Caja caja : cajas) {
-                    if (caja.estaAbierta()) {
-                        caja.agregarCliente(cliente);
-                        break;
-                    }
-                }
+                cajas.get(indiceCajas.primeraAbierta()).agregarCliente(cliente, tiempoActual);
             }
         }
     }
@@ -59,17 +65,8 @@ public class SimulacionMultiplesFilas extends Simulacion {
         evaluarCierreCaja();
     }
     public void evaluarAperturaCaja() {
-        // Verificar si alguna caja tiene muchos clientes
-        boolean necesitaAbrirCaja = false;
-
-        for (Caja caja : cajas) {
-            if (caja.estaAbierta() && caja.cantidadClientes() > UMBRAL_ABRIR_CAJA) {
-                necesitaAbrirCaja = true;
-                break;
-            }
-        }
-
-        if (necesitaAbrirCaja) {
+        // Abrir otra caja si alguna tiene más clientes que el umbral
+        if (indiceCajas.getCajasSaturadas() > 0) {
             abrirSiguienteCaja();
         }
     }
@@ -80,8 +77,8 @@ public class SimulacionMultiplesFilas extends Simulacion {
 
         sb.append("\tMÚLTIPLES FILAS\n");
         sb.append(String.format("Tiempo: %d min (%d horas %d min)\n",
-                tiempoActual, tiempoActual / 60, tiempoActual % 60));
-        sb.append(String.format("Cajas abiertas: %d/%d\n", getCajasAbiertas(), NUM_CAJAS));
+                getTiempoActual(), getTiempoActual() / 60, getTiempoActual() % 60));
+        sb.append(String.format("Cajas abiertas: %d/%d\n", getCajasAbiertas(), cajas.size()));
         sb.append(String.format("Total esperando: %d\n\n", getClientesEsperandoTotal()));
 
         // Mostrar todas las cajas abiertas
@@ -97,6 +94,11 @@ public class SimulacionMultiplesFilas extends Simulacion {
         return sb.toString();
     }
 
+    @Override
+    protected boolean cajasIndependientes() {
+        return true;
+    }
+
     @Override
     public boolean esFilaUnica() {
         return false;
@@ -105,9 +107,9 @@ public class SimulacionMultiplesFilas extends Simulacion {
     @Override
     public String toString() {
         return String.format("SimulacionMultiplesFilas[tiempo=%d min, cajas=%d/%d, esperando=%d, atendidos=%d]",
-                tiempoActual,
+                getTiempoActual(),
                 getCajasAbiertas(),
-                NUM_CAJAS,
+                cajas.size(),
                 getClientesEsperandoTotal(),
                 getClientesAtendidosActual());
     }
@@ -0,0 +1,7 @@
+package costco.sim.Simulaciones;
+
+public enum TipoEvento {
+    LLEGADA,
+    FIN_PAGO,
+    REVISION_CAJAS
+}
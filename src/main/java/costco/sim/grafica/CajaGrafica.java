@@ -1,8 +1,6 @@
 package costco.sim.grafica;
 
-import costco.sim.logica.Caja;
 import javafx.geometry.Pos;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 import javafx.scene.control.Label;
@@ -10,55 +8,37 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.paint.Color;
 
-import java.util.Objects;
-
 /**
  * Representación gráfica de una caja
  * Muestra imagen diferente según esté abierta o cerrada
  */
 public class CajaGrafica extends StackPane {
 
-    private Caja caja;
+    private final int numeroCaja;
     private ImageView imagenCaja;
     private Label lblNumero;
     private Label lblAtendidos;
 
-    private static Image imagenAbierta;
-    private static Image imagenCerrada;
-
-
-    static {
-        try {
-            imagenAbierta = new Image(
-                    Objects.requireNonNull(CajaGrafica.class.getResourceAsStream("/imagenes/caja_abierta.png"))
-            );
-            imagenCerrada = new Image(
-                    Objects.requireNonNull(CajaGrafica.class.getResourceAsStream("/imagenes/caja_cerrada.png"))
-            );
-            System.out.println("Imágenes de caja cargadas correctamente");
-        } catch (Exception e) {
-            System.err.println("Error cargando imágenes de caja: " + e.getMessage());
-        }
-    }
-
+    public static final double ANCHO = 120;
+    public static final double ALTO = 100;
 
-    public CajaGrafica(Caja caja, int x, int y) {
+    public CajaGrafica(int numeroCaja, int x, int y) {
         super();
-        this.caja = caja;
+        this.numeroCaja = numeroCaja;
         this.setLayoutX(x);
         this.setLayoutY(y);
         crearComponentes();
     }
 
     private void crearComponentes() {
-        imagenCaja = new ImageView();
-        imagenCaja.setFitWidth(120);
-        imagenCaja.setFitHeight(100);
+        imagenCaja = new ImageView(GestorRecursos.getAtlas());
+        imagenCaja.setFitWidth(ANCHO);
+        imagenCaja.setFitHeight(ALTO);
         imagenCaja.setPreserveRatio(true);
-        imagenCaja.setImage(imagenCerrada);
+        imagenCaja.setViewport(GestorRecursos.getVista(GestorRecursos.CAJA_CERRADA));
 
         // Label con número de caja (encima de la imagen)
-        lblNumero = new Label("CAJA " + caja.getNumeroCaja());
+        lblNumero = new Label("CAJA " + numeroCaja);
         lblNumero.setFont(Font.font("System", FontWeight.BOLD, 14));
         lblNumero.setTextFill(Color.WHITE);
         lblNumero.setStyle("-fx-background-color: rgba(0,0,0,0.7); " +
@@ -77,23 +57,23 @@ public class CajaGrafica extends StackPane {
         this.getChildren().addAll(imagenCaja, lblNumero, lblAtendidos);
     }
 
-    public void actualizar() {
+    public void actualizar(boolean abierta, int atendidos) {
 
-        if (caja.estaAbierta()) {
-            imagenCaja.setImage(imagenAbierta);
+        if (abierta) {
+            imagenCaja.setViewport(GestorRecursos.getVista(GestorRecursos.CAJA_ABIERTA));
             lblNumero.setTextFill(Color.LIGHTGREEN);
         } else {
-            imagenCaja.setImage(imagenCerrada);
+            imagenCaja.setViewport(GestorRecursos.getVista(GestorRecursos.CAJA_CERRADA));
             lblNumero.setTextFill(Color.GRAY);
         }
 
-        lblAtendidos.setText("Atendidos: " + caja.getClientesAtendidos());
-        lblAtendidos.setVisible(caja.estaAbierta());
+        lblAtendidos.setText("Atendidos: " + atendidos);
+        lblAtendidos.setVisible(abierta);
     }
 
 
-    public Caja getCaja() {
-        return caja;
+    public int getNumeroCaja() {
+        return numeroCaja;
     }
 
 
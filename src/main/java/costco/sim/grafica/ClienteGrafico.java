@@ -1,88 +1,73 @@
 package costco.sim.grafica;
 
-import costco.sim.logica.Cliente;
-import costco.sim.logica.Estado;
 import javafx.animation.TranslateTransition;
-import javafx.application.Platform;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.util.Duration;
 
-import java.util.Objects;
-import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
-
 public class ClienteGrafico extends ImageView {
 
-    private Cliente cliente;
-    private Image imagenEsperando;
-    private Image imagenPagando;
+    private int idCliente;  // 0 = sin cliente
+    private int manejadorImagen;
     private TranslateTransition transicionActiva;
-
-    private static final ConcurrentHashMap<String, Image> cacheImagenes = new ConcurrentHashMap<>();
-
-    public ClienteGrafico(Cliente cliente, double entradaX, double entradaY) {
-        super();
-        this.cliente = cliente;
-        setFitWidth(40);
-        setFitHeight(50);
+    private double destinoX;
+    private double destinoY;
+
+    public ClienteGrafico(int idCliente, double entradaX, double entradaY) {
+        super(GestorRecursos.getAtlas());
+        this.idCliente = idCliente;
+        this.manejadorImagen = -1;
+        setFitWidth(GestorRecursos.ANCHO_CLIENTE);
+        setFitHeight(GestorRecursos.ALTO_CLIENTE);
         setPreserveRatio(true);
         setLayoutX(entradaX);
         setLayoutY(entradaY);
 
-        if (cliente != null) {
-            asignarImagenesCliente();
-            actualizarImagen();
+        if (idCliente != 0) {
+            actualizarImagen(false);
         } else {
-            cargarImagenPorDefecto();
             setVisible(false);
         }
     }
 
-    public void setCliente(Cliente cliente) {
-        this.cliente = cliente;
+    public void setCliente(int idCliente) {
+        this.idCliente = idCliente;
 
-        if (cliente != null) {
-            asignarImagenesCliente();
+        if (idCliente != 0) {
             setVisible(true);
-            actualizarImagen();
+            actualizarImagen(false);
         } else {
             setVisible(false);
-            cargarImagenPorDefecto();
         }
     }
 
-    public Cliente getCliente() {
-        return cliente;
+    public int getIdCliente() {
+        return idCliente;
     }
 
-    public void actualizarImagen() {
-        if (cliente == null) {
+    public void actualizarImagen(boolean pagando) {
+        if (idCliente == 0) {
             setVisible(false);
             return;
         }
 
-        Estado estado = cliente.getEstado();
-        if (estado == null) {
-            setImage(imagenEsperando);
+        int manejador = GestorRecursos.manejadorCliente(idCliente, pagando);
+        if (manejador != manejadorImagen) {
+            manejadorImagen = manejador;
+            setViewport(GestorRecursos.getVista(manejador));
             setVisible(true);
-            return;
-        }
-
-        Image nuevaImagen = (estado == Estado.PAGANDO) ? imagenPagando : imagenEsperando;
-
-        if (getImage() != nuevaImagen) {
-            Platform.runLater(() -> {
-                setImage(nuevaImagen);
-                setVisible(true);
-            });
         }
     }
 
     public void moverA(double destinoX, double destinoY, double duracionMs) {
         if (transicionActiva != null) {
+            // Se redibuja en cada cuadro: no reiniciar si ya va hacia el mismo lugar
+            if (destinoX == this.destinoX && destinoY == this.destinoY) {
+                return;
+            }
             transicionActiva.stop();
         }
+        this.destinoX = destinoX;
+        this.destinoY = destinoY;
 
         // Calcular deltas para la transición
         double deltaX = destinoX - getLayoutX();
@@ -105,46 +90,6 @@ public class ClienteGrafico extends ImageView {
         transicionActiva.play();
     }
 
-    private void asignarImagenesCliente() {
-        try {
-            int numero = new Random().nextInt(1, 5);
-            imagenEsperando = cargarImagen("/imagenes/cliente" + numero + ".png");
-            imagenPagando = cargarImagen("/imagenes/cliente" + numero + "_pagando.png");
-
-            if (imagenEsperando == null || imagenPagando == null) {
-                cargarImagenPorDefecto();
-            }
-        } catch (Exception e) {
-            System.err.println("Error asignando imágenes del cliente: " + e.getMessage());
-            cargarImagenPorDefecto();
-        }
-    }
-
-    private void cargarImagenPorDefecto() {
-        try {
-            imagenEsperando = cargarImagen("/imagenes/cliente1.png"); // Imagen por defecto
-            imagenPagando = cargarImagen("/imagenes/cliente1_pagando.png"); // Imagen por defecto
-        } catch (Exception e) {
-            System.err.println("Error cargando imágenes por defecto: " + e.getMessage());
-
-            imagenEsperando = null;
-            imagenPagando = null;
-        }
-    }
-
-    private Image cargarImagen(String ruta) {
-        return cacheImagenes.computeIfAbsent(ruta, r -> {
-            try {
-                return new Image(Objects.requireNonNull(
-                        ClienteGrafico.class.getResourceAsStream(r)
-                ));
-            } catch (Exception e) {
-                System.err.println("Error cargando imagen: " + ruta);
-                return null;
-            }
-        });
-    }
-
     public double getPosX() {
         return getLayoutX() + getTranslateX();
     }
@@ -162,18 +107,18 @@ public class ClienteGrafico extends ImageView {
     }
 
     public boolean tieneCliente() {
-        return cliente != null;
+        return idCliente != 0;
     }
 
     public void limpiar() {
-        this.cliente = null;
+        this.idCliente = 0;
         setVisible(false);
     }
 
 
     @Override
     public String toString() {
-        return String.format("ClienteGrafico{cliente=%s, posX=%.1f, posY=%.1f, visible=%s}",
-                cliente, getPosX(), getPosY(), isVisible());
+        return String.format("ClienteGrafico{cliente=%d, posX=%.1f, posY=%.1f, visible=%s}",
+                idCliente, getPosX(), getPosY(), isVisible());
     }
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package costco.sim.grafica;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.net.URL;
+import java.util.stream.IntStream;
+
+/**
+ * Todas las imágenes de clientes y cajas, decodificadas una sola vez (en paralelo)
+ * al tamaño en que se dibujan y empacadas en un atlas.
+ * Cada imagen se identifica con un entero; los sprites guardan ese entero y solo
+ * cambian el recorte (viewport) del atlas, sin buscar rutas ni crear objetos.
+ * El fondo no entra: es grande y lo carga el FXML.
+ */
+public final class GestorRecursos {
+
+    // Manejadores: 0..3 esperando, 4..7 pagando, después las cajas
+    public static final int TIPOS_CLIENTE = 4;
+    public static final int CAJA_CERRADA = 8;
+    public static final int CAJA_ABIERTA = 9;
+
+    public static final double ANCHO_CLIENTE = 40;
+    public static final double ALTO_CLIENTE = 50;
+
+    private static final String[] RUTAS = {
+            "/imagenes/cliente1.png", "/imagenes/cliente2.png", "/imagenes/cliente3.png", "/imagenes/cliente4.png",
+            "/imagenes/cliente1_pagando.png", "/imagenes/cliente2_pagando.png",
+            "/imagenes/cliente3_pagando.png", "/imagenes/cliente4_pagando.png",
+            "/imagenes/caja_cerrada.png", "/imagenes/caja_abierta.png"
+    };
+
+    private static final int ANCHO_MAX_ATLAS = 512;
+
+    // vistas se asigna antes que atlas, así quien ve el atlas ya ve las vistas
+    private static volatile WritableImage atlas;
+    private static Rectangle2D[] vistas;
+
+    private GestorRecursos() {
+    }
+
+    /**
+     * Decodifica y empaca todo; las llamadas siguientes no hacen nada.
+     * Se puede llamar desde cualquier hilo antes de mostrar la ventana.
+     */
+    public static synchronized void cargar() {
+        if (atlas != null) {
+            return;
+        }
+
+        Image[] imagenes = new Image[RUTAS.length];
+        IntStream.range(0, RUTAS.length).parallel().forEach(i -> imagenes[i] = decodificar(i));
+
+        // Empaque por renglones: se llena a lo ancho y se baja al siguiente renglón
+        Rectangle2D[] lugares = new Rectangle2D[RUTAS.length];
+        int x = 0, y = 0, altoRenglon = 0, ancho = 0;
+        for (int i = 0; i < imagenes.length; i++) {
+            int w = (int) Math.ceil(imagenes[i].getWidth());
+            int h = (int) Math.ceil(imagenes[i].getHeight());
+            if (x > 0 && x + w > ANCHO_MAX_ATLAS) {
+                x = 0;
+                y += altoRenglon;
+                altoRenglon = 0;
+            }
+            lugares[i] = new Rectangle2D(x, y, w, h);
+            x += w;
+            ancho = Math.max(ancho, x);
+            altoRenglon = Math.max(altoRenglon, h);
+        }
+
+        WritableImage nuevoAtlas = new WritableImage(Math.max(ancho, 1), Math.max(y + altoRenglon, 1));
+        PixelWriter escritor = nuevoAtlas.getPixelWriter();
+        for (int i = 0; i < imagenes.length; i++) {
+            Rectangle2D lugar = lugares[i];
+            if (imagenes[i].getPixelReader() != null && lugar.getWidth() > 0) {
+                escritor.setPixels((int) lugar.getMinX(), (int) lugar.getMinY(),
+                        (int) lugar.getWidth(), (int) lugar.getHeight(), imagenes[i].getPixelReader(), 0, 0);
+            }
+        }
+
+        vistas = lugares;
+        atlas = nuevoAtlas;
+    }
+
+    private static Image decodificar(int manejador) {
+        boolean esCaja = manejador >= CAJA_CERRADA;
+        URL url = GestorRecursos.class.getResource(RUTAS[manejador]);
+        if (url == null) {
+            System.err.println("Error cargando imagen: " + RUTAS[manejador]);
+            return new WritableImage(1, 1);
+        }
+
+        Image imagen = new Image(url.toExternalForm(),
+                esCaja ? CajaGrafica.ANCHO : ANCHO_CLIENTE,
+                esCaja ? CajaGrafica.ALTO : ALTO_CLIENTE,
+                true, true);
+        if (imagen.isError()) {
+            System.err.println("Error cargando imagen: " + RUTAS[manejador]);
+            return new WritableImage(1, 1);
+        }
+        return imagen;
+    }
+
+    /**
+     * La apariencia depende solo del id, para que una misma corrida se vea igual
+     */
+    public static int manejadorCliente(int idCliente, boolean pagando) {
+        return (idCliente - 1) % TIPOS_CLIENTE + (pagando ? TIPOS_CLIENTE : 0);
+    }
+
+    public static Image getAtlas() {
+        if (atlas == null) {
+            cargar();
+        }
+        return atlas;
+    }
+
+    /**
+     * Recorte del atlas que corresponde al manejador
+     */
+    public static Rectangle2D getVista(int manejador) {
+        if (atlas == null) {
+            cargar();
+        }
+        return vistas[manejador];
+    }
+}
@@ -0,0 +1,42 @@
+package costco.sim.grafica;
+
+import javafx.scene.control.Label;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+/**
+ * Etiqueta "+N" al final de una fila con más clientes de los que se dibujan,
+ * como el "...(+N)" del estado visual en texto de la caja
+ */
+public class InsigniaFila extends Label {
+
+    private int cantidad;
+
+    public InsigniaFila() {
+        super();
+        setFont(Font.font("System", FontWeight.BOLD, 13));
+        setTextFill(Color.WHITE);
+        setStyle("-fx-background-color: rgba(139,0,0,0.8); " +
+                "-fx-padding: 3px 6px; " +
+                "-fx-background-radius: 10;");
+        setMouseTransparent(true);
+        ocultar();
+    }
+
+    public void mostrar(int cantidad, double x, double y) {
+        if (cantidad != this.cantidad) {
+            this.cantidad = cantidad;
+            setText("+" + cantidad);
+        }
+        setLayoutX(x);
+        setLayoutY(y);
+        setVisible(true);
+        toFront();
+    }
+
+    public void ocultar() {
+        cantidad = 0;
+        setVisible(false);
+    }
+}
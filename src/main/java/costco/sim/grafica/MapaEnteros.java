@@ -0,0 +1,117 @@
+package costco.sim.grafica;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de int a int con direccionamiento abierto y sondeo lineal, sin
+ * objetos por entrada. La clave 0 está reservada (los ids empiezan en 1).
+ * Crece al doble cuando pasa la mitad de carga y borra con corrimiento
+ * hacia atrás, así nunca quedan marcas de borrado.
+ */
+public class MapaEnteros {
+
+    public static final int NO_ENCONTRADO = -1;
+
+    private static final int VACIO = 0;
+
+    private int[] claves;
+    private int[] valores;
+    private int mascara;
+    private int cantidad;
+
+    public MapaEnteros(int capacidadEsperada) {
+        reservar(Integer.highestOneBit(Math.max(capacidadEsperada, 2) * 2) << 1);  // carga menor a 1/2
+    }
+
+    /**
+     * El valor guardado para la clave, o NO_ENCONTRADO
+     */
+    public int obtener(int clave) {
+        for (int i = hash(clave) & mascara; claves[i] != VACIO; i = (i + 1) & mascara) {
+            if (claves[i] == clave) {
+                return valores[i];
+            }
+        }
+        return NO_ENCONTRADO;
+    }
+
+    public void poner(int clave, int valor) {
+        if (clave == VACIO) {
+            throw new IllegalArgumentException("La clave 0 está reservada");
+        }
+
+        int i = hash(clave) & mascara;
+        while (claves[i] != VACIO && claves[i] != clave) {
+            i = (i + 1) & mascara;
+        }
+        if (claves[i] == VACIO) {
+            cantidad++;
+        }
+        claves[i] = clave;
+        valores[i] = valor;
+
+        if (cantidad * 2 > claves.length) {
+            crecer();
+        }
+    }
+
+    public void quitar(int clave) {
+        if (clave == VACIO) {
+            throw new IllegalArgumentException("La clave 0 está reservada");
+        }
+
+        int i = hash(clave) & mascara;
+        while (claves[i] != clave) {
+            if (claves[i] == VACIO) {
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+
+        int hueco = i;
+        for (int j = (hueco + 1) & mascara; claves[j] != VACIO; j = (j + 1) & mascara) {
+            int ideal = hash(claves[j]) & mascara;
+            // La clave en j puede ocupar el hueco si su lugar ideal no está entre el hueco y j
+            if (((j - ideal) & mascara) >= ((j - hueco) & mascara)) {
+                claves[hueco] = claves[j];
+                valores[hueco] = valores[j];
+                hueco = j;
+            }
+        }
+        claves[hueco] = VACIO;
+        cantidad--;
+    }
+
+    public void limpiar() {
+        Arrays.fill(claves, VACIO);
+        cantidad = 0;
+    }
+
+    public int tamanio() {
+        return cantidad;
+    }
+
+    private void reservar(int tamanioTabla) {
+        claves = new int[tamanioTabla];
+        valores = new int[tamanioTabla];
+        mascara = tamanioTabla - 1;
+        cantidad = 0;
+    }
+
+    private void crecer() {
+        int[] clavesAnteriores = claves;
+        int[] valoresAnteriores = valores;
+
+        reservar(claves.length * 2);
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != VACIO) {
+                poner(clavesAnteriores[i], valoresAnteriores[i]);
+            }
+        }
+    }
+
+    private static int hash(int clave) {
+        int h = clave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
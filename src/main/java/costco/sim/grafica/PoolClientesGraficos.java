@@ -0,0 +1,233 @@
+package costco.sim.grafica;
+
+import javafx.scene.layout.Pane;
+
+/**
+ * Reserva de ClienteGrafico indexada por id de cliente.
+ * Un MapaEnteros (id -> lugar) da la búsqueda en O(1),
+ * los lugares libres se guardan en una pila y los ocupados en un arreglo denso.
+ * Cada cuadro empieza una generación nueva: los sprites que no se pidieron
+ * durante el cuadro quedan con una generación vieja y se liberan al final,
+ * así un cuadro cuesta O(clientes visibles) y no reserva memoria.
+ *
+ * Empieza con capacidadInicial sprites ya creados y crece al doble cuando
+ * se acaban, hasta capacidadMaxima. Si pasa un buen rato usando menos de
+ * la cuarta parte, se achica y suelta los sprites sobrantes.
+ */
+public class PoolClientesGraficos {
+
+    private static final int VACIO = 0;  // los ids de cliente empiezan en 1
+    private static final int CUADROS_PARA_ACHICAR = 600;  // ~10 s a 60 cuadros por segundo
+
+    private final Pane panel;
+    private final int capacidadInicial;
+    private final int capacidadMaxima;
+    private final double entradaX;
+    private final double entradaY;
+
+    // Un lugar puede no tener sprite todavía: se crea la primera vez que se usa
+    private ClienteGrafico[] sprites;
+    private int[] generacionLugar;
+
+    // Pila de lugares libres
+    private int[] libres;
+    private int cantidadLibres;
+
+    // Lugares ocupados, densos para recorrerlos sin huecos
+    private int[] enUso;
+    private int[] posicionEnUso;
+    private int cantidadEnUso;
+
+    private MapaEnteros lugarPorId;
+
+    private int generacion;
+    private int cuadrosOcioso;
+
+    public PoolClientesGraficos(Pane panel, int capacidadInicial, int capacidadMaxima,
+                                double entradaX, double entradaY) {
+        if (capacidadInicial < 1 || capacidadMaxima < capacidadInicial) {
+            throw new IllegalArgumentException("Capacidades inválidas: " + capacidadInicial + "/" + capacidadMaxima);
+        }
+        this.panel = panel;
+        this.capacidadInicial = capacidadInicial;
+        this.capacidadMaxima = capacidadMaxima;
+        this.entradaX = entradaX;
+        this.entradaY = entradaY;
+
+        redimensionar(capacidadInicial);
+        for (int i = 0; i < capacidadInicial; i++) {
+            crearSprite(i);
+        }
+    }
+
+    /**
+     * Libera todos los sprites, vuelve a la capacidad inicial
+     * y los agrega al panel (que se supone vacío)
+     */
+    public void reiniciar() {
+        for (int i = cantidadEnUso - 1; i >= 0; i--) {
+            liberar(enUso[i]);
+        }
+        redimensionar(capacidadInicial);
+        cuadrosOcioso = 0;
+
+        for (ClienteGrafico sprite : sprites) {
+            if (sprite != null) {
+                panel.getChildren().add(sprite);
+            }
+        }
+    }
+
+    public void iniciarCuadro() {
+        generacion++;
+    }
+
+    /**
+     * El sprite que ya muestra a este cliente (marcado como visto en este cuadro), o null
+     */
+    public ClienteGrafico obtener(int idCliente) {
+        int lugar = lugarPorId.obtener(idCliente);
+        if (lugar == MapaEnteros.NO_ENCONTRADO) {
+            return null;
+        }
+        generacionLugar[lugar] = generacion;
+        return sprites[lugar];
+    }
+
+    /**
+     * Toma un sprite libre para el cliente, o null si ya se llegó a la capacidad máxima
+     */
+    public ClienteGrafico asignar(int idCliente) {
+        if (cantidadLibres == 0) {
+            if (sprites.length == capacidadMaxima) {
+                return null;
+            }
+            redimensionar(Math.min(sprites.length * 2, capacidadMaxima));
+        }
+
+        int lugar = libres[--cantidadLibres];
+        posicionEnUso[lugar] = cantidadEnUso;
+        enUso[cantidadEnUso++] = lugar;
+        generacionLugar[lugar] = generacion;
+        lugarPorId.poner(idCliente, lugar);
+
+        ClienteGrafico sprite = sprites[lugar];
+        if (sprite == null) {
+            sprite = crearSprite(lugar);
+            panel.getChildren().add(sprite);
+        }
+        sprite.setCliente(idCliente);
+        return sprite;
+    }
+
+    /**
+     * Libera los sprites que no se pidieron durante el cuadro actual
+     * y achica la reserva si lleva tiempo casi sin usarse
+     */
+    public void terminarCuadro() {
+        for (int i = cantidadEnUso - 1; i >= 0; i--) {
+            int lugar = enUso[i];
+            if (generacionLugar[lugar] != generacion) {
+                liberar(lugar);
+            }
+        }
+
+        if (sprites.length > capacidadInicial && cantidadEnUso < sprites.length / 4) {
+            if (++cuadrosOcioso >= CUADROS_PARA_ACHICAR) {
+                redimensionar(Math.max(capacidadInicial, sprites.length / 2));
+                cuadrosOcioso = 0;
+            }
+        } else {
+            cuadrosOcioso = 0;
+        }
+    }
+
+    public int getCantidadEnUso() {
+        return cantidadEnUso;
+    }
+
+    public int getCapacidad() {
+        return sprites.length;
+    }
+
+    public int getCapacidadMaxima() {
+        return capacidadMaxima;
+    }
+
+    private ClienteGrafico crearSprite(int lugar) {
+        ClienteGrafico sprite = new ClienteGrafico(VACIO, entradaX, entradaY);
+        sprite.setVisible(false);
+        sprites[lugar] = sprite;
+        return sprite;
+    }
+
+    private void liberar(int lugar) {
+        ClienteGrafico sprite = sprites[lugar];
+        lugarPorId.quitar(sprite.getIdCliente());
+        sprite.setCliente(VACIO);
+
+        // El último ocupado pasa al hueco
+        int k = posicionEnUso[lugar];
+        int ultimo = enUso[--cantidadEnUso];
+        enUso[k] = ultimo;
+        posicionEnUso[ultimo] = k;
+        posicionEnUso[lugar] = -1;
+
+        libres[cantidadLibres++] = lugar;
+    }
+
+    /**
+     * Pasa a una capacidad nueva (nunca menor a los ocupados): los ocupados van
+     * a los primeros lugares, los libres que sobren salen del panel y el mapa
+     * se reconstruye. Es poco frecuente, así que puede reservar memoria.
+     */
+    private void redimensionar(int capacidad) {
+        ClienteGrafico[] anteriores = sprites;
+        int[] generacionAnterior = generacionLugar;
+        int[] enUsoAnterior = enUso;
+        int ocupados = cantidadEnUso;
+
+        sprites = new ClienteGrafico[capacidad];
+        generacionLugar = new int[capacidad];
+        libres = new int[capacidad];
+        enUso = new int[capacidad];
+        posicionEnUso = new int[capacidad];
+
+        lugarPorId = new MapaEnteros(capacidad);
+
+        int lugar = 0;
+        if (anteriores != null) {
+            // Primero los ocupados, en el mismo orden
+            for (int i = 0; i < ocupados; i++) {
+                int anterior = enUsoAnterior[i];
+                ClienteGrafico sprite = anteriores[anterior];
+                anteriores[anterior] = null;
+                sprites[lugar] = sprite;
+                generacionLugar[lugar] = generacionAnterior[anterior];
+                enUso[lugar] = lugar;
+                posicionEnUso[lugar] = lugar;
+                lugarPorId.poner(sprite.getIdCliente(), lugar);
+                lugar++;
+            }
+
+            // Después los libres que quepan; el resto se suelta
+            for (ClienteGrafico sprite : anteriores) {
+                if (sprite == null) {
+                    continue;
+                }
+                if (lugar < capacidad) {
+                    sprites[lugar++] = sprite;
+                } else {
+                    panel.getChildren().remove(sprite);
+                }
+            }
+        }
+
+        cantidadEnUso = ocupados;
+        cantidadLibres = 0;
+        for (int i = capacidad - 1; i >= ocupados; i--) {
+            libres[cantidadLibres++] = i;
+            posicionEnUso[i] = -1;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package costco.sim.grafica;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+
+/**
+ * Vista que dibuja cajas y clientes en un solo Canvas en cada pulso, en lugar
+ * de un nodo por cosa. Las imágenes salen del atlas de GestorRecursos y las
+ * posiciones se interpolan aquí mismo hacia su destino.
+ * Los clientes se guardan en arreglos densos indexados con un MapaEnteros,
+ * así miles de clientes cuestan un drawImage cada uno y nada de nodos.
+ */
+public class VistaLienzo implements VistaTienda {
+
+    private static final double ANCHO_LIENZO = 1200;
+    private static final double ALTO_LIENZO = 600;
+    private static final int CAPACIDAD_INICIAL = 256;
+
+    private static final Font FUENTE_NUMERO = Font.font("System", FontWeight.BOLD, 14);
+    private static final Font FUENTE_ATENDIDOS = Font.font("System", FontWeight.NORMAL, 11);
+    private static final Font FUENTE_INSIGNIA = Font.font("System", FontWeight.BOLD, 13);
+    private static final Color FONDO_ETIQUETA = Color.rgb(0, 0, 0, 0.7);
+    private static final Color FONDO_INSIGNIA = Color.rgb(139, 0, 0, 0.8);
+
+    private final Pane panel;
+    private final Canvas lienzo;
+    private final GraphicsContext gc;
+    private final double entradaX;
+    private final double entradaY;
+
+    // Recortes del atlas copiados a arreglos para no tocar objetos al dibujar
+    private final Image atlas;
+    private final double[] spriteX;
+    private final double[] spriteY;
+    private final double[] spriteAncho;
+    private final double[] spriteAlto;
+
+    // Cajas
+    private double[] cajaX;
+    private double[] cajaY;
+    private boolean[] cajaAbierta;
+    private int[] atendidos;
+    private String[] textoNumero;
+    private String[] textoAtendidos;
+
+    // Insignias por fila
+    private int[] ocultos;
+    private double[] insigniaX;
+    private double[] insigniaY;
+    private String[] textoInsignia;
+
+    // Clientes visibles, densos
+    private int[] ids;
+    private double[] x;
+    private double[] y;
+    private double[] destinoX;
+    private double[] destinoY;
+    private boolean[] pagando;
+    private int[] generacionCliente;
+    private int cantidad;
+    private final MapaEnteros indicePorId;
+    private int generacion;
+
+    private double msPorMinuto;
+    private long ultimoCuadro;
+
+    public VistaLienzo(Pane panel, double entradaX, double entradaY) {
+        this.panel = panel;
+        this.lienzo = new Canvas(ANCHO_LIENZO, ALTO_LIENZO);
+        this.lienzo.setMouseTransparent(true);
+        this.gc = lienzo.getGraphicsContext2D();
+        this.entradaX = entradaX;
+        this.entradaY = entradaY;
+
+        this.atlas = GestorRecursos.getAtlas();
+        int sprites = GestorRecursos.CAJA_ABIERTA + 1;
+        this.spriteX = new double[sprites];
+        this.spriteY = new double[sprites];
+        this.spriteAncho = new double[sprites];
+        this.spriteAlto = new double[sprites];
+        for (int i = 0; i < sprites; i++) {
+            Rectangle2D vista = GestorRecursos.getVista(i);
+            spriteX[i] = vista.getMinX();
+            spriteY[i] = vista.getMinY();
+            spriteAncho[i] = vista.getWidth();
+            spriteAlto[i] = vista.getHeight();
+        }
+
+        this.ids = new int[CAPACIDAD_INICIAL];
+        this.x = new double[CAPACIDAD_INICIAL];
+        this.y = new double[CAPACIDAD_INICIAL];
+        this.destinoX = new double[CAPACIDAD_INICIAL];
+        this.destinoY = new double[CAPACIDAD_INICIAL];
+        this.pagando = new boolean[CAPACIDAD_INICIAL];
+        this.generacionCliente = new int[CAPACIDAD_INICIAL];
+        this.indicePorId = new MapaEnteros(CAPACIDAD_INICIAL);
+    }
+
+    @Override
+    public void preparar(double[] cajaX, double[] cajaY) {
+        panel.getChildren().clear();
+        panel.getChildren().add(lienzo);
+
+        int numCajas = cajaX.length;
+        this.cajaX = cajaX;
+        this.cajaY = cajaY;
+        this.cajaAbierta = new boolean[numCajas];
+        this.atendidos = new int[numCajas];
+        this.textoNumero = new String[numCajas];
+        this.textoAtendidos = new String[numCajas];
+        for (int i = 0; i < numCajas; i++) {
+            textoNumero[i] = "CAJA " + (i + 1);
+            textoAtendidos[i] = "Atendidos: 0";
+        }
+
+        this.ocultos = new int[numCajas + 1];
+        this.insigniaX = new double[numCajas + 1];
+        this.insigniaY = new double[numCajas + 1];
+        this.textoInsignia = new String[numCajas + 1];
+
+        cantidad = 0;
+        indicePorId.limpiar();
+        ultimoCuadro = -1;
+        gc.clearRect(0, 0, ANCHO_LIENZO, ALTO_LIENZO);
+    }
+
+    @Override
+    public void setMsPorMinuto(double msPorMinuto) {
+        this.msPorMinuto = msPorMinuto;
+    }
+
+    @Override
+    public void iniciarCuadro() {
+        generacion++;
+    }
+
+    @Override
+    public void dibujarCaja(int indiceCaja, boolean abierta, int atendidos) {
+        cajaAbierta[indiceCaja] = abierta;
+        if (atendidos != this.atendidos[indiceCaja]) {
+            this.atendidos[indiceCaja] = atendidos;
+            textoAtendidos[indiceCaja] = "Atendidos: " + atendidos;
+        }
+    }
+
+    @Override
+    public void dibujarCliente(int fila, int idCliente, boolean pagando, double x, double y) {
+        int k = indicePorId.obtener(idCliente);
+        if (k == MapaEnteros.NO_ENCONTRADO) {
+            if (cantidad == ids.length) {
+                crecer();
+            }
+            k = cantidad++;
+            ids[k] = idCliente;
+            this.x[k] = entradaX;
+            this.y[k] = entradaY;
+            indicePorId.poner(idCliente, k);
+        }
+
+        destinoX[k] = x;
+        destinoY[k] = y;
+        this.pagando[k] = pagando;
+        generacionCliente[k] = generacion;
+    }
+
+    @Override
+    public void dibujarInsignia(int fila, int ocultos, double x, double y) {
+        if (ocultos != this.ocultos[fila] && ocultos > 0) {
+            textoInsignia[fila] = "+" + ocultos;
+        }
+        this.ocultos[fila] = ocultos;
+        insigniaX[fila] = x;
+        insigniaY[fila] = y;
+    }
+
+    @Override
+    public void terminarCuadro() {
+        for (int k = cantidad - 1; k >= 0; k--) {
+            if (generacionCliente[k] != generacion) {
+                quitar(k);
+            }
+        }
+    }
+
+    private void quitar(int k) {
+        indicePorId.quitar(ids[k]);
+
+        // El último pasa al hueco
+        int ultimo = --cantidad;
+        if (k != ultimo) {
+            ids[k] = ids[ultimo];
+            x[k] = x[ultimo];
+            y[k] = y[ultimo];
+            destinoX[k] = destinoX[ultimo];
+            destinoY[k] = destinoY[ultimo];
+            pagando[k] = pagando[ultimo];
+            generacionCliente[k] = generacionCliente[ultimo];
+            indicePorId.poner(ids[k], k);
+        }
+    }
+
+    private void crecer() {
+        int capacidad = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacidad);
+        x = Arrays.copyOf(x, capacidad);
+        y = Arrays.copyOf(y, capacidad);
+        destinoX = Arrays.copyOf(destinoX, capacidad);
+        destinoY = Arrays.copyOf(destinoY, capacidad);
+        pagando = Arrays.copyOf(pagando, capacidad);
+        generacionCliente = Arrays.copyOf(generacionCliente, capacidad);
+    }
+
+    @Override
+    public void animar(long ahoraNs) {
+        double segundos = ultimoCuadro < 0 ? 0 : (ahoraNs - ultimoCuadro) / 1e9;
+        ultimoCuadro = ahoraNs;
+
+        // Acercamiento exponencial: ~95% del camino en el mismo tiempo que la vista de nodos
+        double avance = msPorMinuto <= 0
+                ? 1
+                : 1 - Math.exp(-segundos * 1000 / (0.1 * msPorMinuto));
+        for (int k = 0; k < cantidad; k++) {
+            x[k] += (destinoX[k] - x[k]) * avance;
+            y[k] += (destinoY[k] - y[k]) * avance;
+        }
+
+        gc.clearRect(0, 0, ANCHO_LIENZO, ALTO_LIENZO);
+        dibujarCajas();
+        dibujarClientes();
+        dibujarInsignias();
+    }
+
+    private void dibujarCajas() {
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+
+        for (int i = 0; i < cajaX.length; i++) {
+            boolean abierta = cajaAbierta[i];
+            int sprite = abierta ? GestorRecursos.CAJA_ABIERTA : GestorRecursos.CAJA_CERRADA;
+            double centroX = cajaX[i] + spriteAncho[sprite] / 2;
+            dibujarSprite(sprite, cajaX[i], cajaY[i]);
+
+            gc.setFont(FUENTE_NUMERO);
+            dibujarEtiqueta(textoNumero[i], centroX, cajaY[i] + 13, 70, 26,
+                    FONDO_ETIQUETA, abierta ? Color.LIGHTGREEN : Color.GRAY);
+
+            if (abierta) {
+                gc.setFont(FUENTE_ATENDIDOS);
+                dibujarEtiqueta(textoAtendidos[i], centroX, cajaY[i] + CajaGrafica.ALTO - 10, 84, 20,
+                        FONDO_ETIQUETA, Color.WHITE);
+            }
+        }
+    }
+
+    private void dibujarClientes() {
+        for (int k = 0; k < cantidad; k++) {
+            dibujarSprite(GestorRecursos.manejadorCliente(ids[k], pagando[k]), x[k], y[k]);
+        }
+    }
+
+    private void dibujarInsignias() {
+        gc.setFont(FUENTE_INSIGNIA);
+        for (int fila = 0; fila < ocultos.length; fila++) {
+            if (ocultos[fila] > 0) {
+                dibujarEtiqueta(textoInsignia[fila], insigniaX[fila] + 20, insigniaY[fila] + 11, 44, 22,
+                        FONDO_INSIGNIA, Color.WHITE);
+            }
+        }
+    }
+
+    private void dibujarSprite(int sprite, double destinoX, double destinoY) {
+        gc.drawImage(atlas, spriteX[sprite], spriteY[sprite], spriteAncho[sprite], spriteAlto[sprite],
+                destinoX, destinoY, spriteAncho[sprite], spriteAlto[sprite]);
+    }
+
+    private void dibujarEtiqueta(String texto, double centroX, double centroY, double ancho, double alto,
+                                 Color fondo, Color color) {
+        gc.setFill(fondo);
+        gc.fillRoundRect(centroX - ancho / 2, centroY - alto / 2, ancho, alto, 10, 10);
+        gc.setFill(color);
+        gc.fillText(texto, centroX, centroY);
+    }
+}
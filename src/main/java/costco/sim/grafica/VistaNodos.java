@@ -0,0 +1,130 @@
+package costco.sim.grafica;
+
+import javafx.scene.layout.Pane;
+
+import java.util.Arrays;
+
+/**
+ * Vista con un nodo por cosa: CajaGrafica, ClienteGrafico (del pool) e InsigniaFila.
+ * JavaFX anima a cada cliente con su propia transición.
+ * Si el pool se queda sin sprites, los clientes que no caben se suman al "+N"
+ * de su fila; por eso las insignias se aplican al terminar el cuadro.
+ */
+public class VistaNodos implements VistaTienda {
+
+    private final Pane panel;
+    private final PoolClientesGraficos poolClientes;
+
+    private CajaGrafica[] cajasGraficas;
+    private InsigniaFila[] insignias;
+    private double msPorMinuto;
+
+    // Por fila, lo pedido en dibujarInsignia más los clientes sin sprite del cuadro
+    private int[] ocultos;
+    private int[] sinSprite;
+    private double[] insigniaX;
+    private double[] insigniaY;
+
+    public VistaNodos(Pane panel, PoolClientesGraficos poolClientes) {
+        this.panel = panel;
+        this.poolClientes = poolClientes;
+        this.cajasGraficas = new CajaGrafica[0];
+        this.insignias = new InsigniaFila[0];
+        this.ocultos = new int[0];
+        this.sinSprite = new int[0];
+        this.insigniaX = new double[0];
+        this.insigniaY = new double[0];
+    }
+
+    @Override
+    public void preparar(double[] cajaX, double[] cajaY) {
+        panel.getChildren().clear();
+        poolClientes.reiniciar();
+
+        int numCajas = cajaX.length;
+        cajasGraficas = new CajaGrafica[numCajas];
+        insignias = new InsigniaFila[numCajas + 1];
+        ocultos = new int[numCajas + 1];
+        sinSprite = new int[numCajas + 1];
+        insigniaX = new double[numCajas + 1];
+        insigniaY = new double[numCajas + 1];
+
+        for (int i = 0; i < numCajas; i++) {
+            CajaGrafica cajaGrafica = new CajaGrafica(i + 1, (int) cajaX[i], (int) cajaY[i]);
+            cajaGrafica.actualizar(false, 0);
+            cajasGraficas[i] = cajaGrafica;
+            panel.getChildren().add(cajaGrafica);
+        }
+
+        for (int i = 0; i <= numCajas; i++) {
+            insignias[i] = new InsigniaFila();
+            panel.getChildren().add(insignias[i]);
+        }
+    }
+
+    @Override
+    public void setMsPorMinuto(double msPorMinuto) {
+        this.msPorMinuto = msPorMinuto;
+    }
+
+    @Override
+    public void iniciarCuadro() {
+        poolClientes.iniciarCuadro();
+        Arrays.fill(ocultos, 0);
+        Arrays.fill(sinSprite, 0);
+    }
+
+    @Override
+    public void dibujarCaja(int indiceCaja, boolean abierta, int atendidos) {
+        cajasGraficas[indiceCaja].actualizar(abierta, atendidos);
+    }
+
+    @Override
+    public void dibujarCliente(int fila, int idCliente, boolean pagando, double x, double y) {
+        ClienteGrafico clienteGrafico = poolClientes.obtener(idCliente);
+
+        if (clienteGrafico != null) {
+            if (Math.abs(clienteGrafico.getPosX() - x) > 5 || Math.abs(clienteGrafico.getPosY() - y) > 5) {
+                clienteGrafico.moverA(x, y, 0.3 * msPorMinuto);
+            }
+        } else {
+            clienteGrafico = poolClientes.asignar(idCliente);
+            if (clienteGrafico == null) {
+                sinSprite[fila]++;
+                return;
+            }
+            clienteGrafico.setVisible(true);
+            clienteGrafico.moverA(x, y, 0.5 * msPorMinuto);
+        }
+
+        clienteGrafico.toFront();
+        clienteGrafico.actualizarImagen(pagando);
+    }
+
+    @Override
+    public void dibujarInsignia(int fila, int ocultos, double x, double y) {
+        this.ocultos[fila] = ocultos;
+        insigniaX[fila] = x;
+        insigniaY[fila] = y;
+    }
+
+    @Override
+    public void terminarCuadro() {
+        for (int fila = 0; fila < insignias.length; fila++) {
+            int cantidad = ocultos[fila] + sinSprite[fila];
+            if (cantidad > 0) {
+                insignias[fila].mostrar(cantidad, insigniaX[fila], insigniaY[fila]);
+            } else {
+                insignias[fila].ocultar();
+            }
+        }
+
+        // Los que ya no aparecen vuelven al pool
+        poolClientes.terminarCuadro();
+    }
+
+    @Override
+    public void animar(long ahoraNs) {
+        // Las transiciones de cada nodo se animan solas
+    }
+}
@@ -0,0 +1,43 @@
+package costco.sim.grafica;
+
+/**
+ * Forma de dibujar la tienda. El controlador calcula dónde va cada cosa y en
+ * cada instantánea nueva llama iniciarCuadro, los dibujar... de lo visible
+ * y terminarCuadro; animar se llama en cada pulso aunque no haya instantánea nueva.
+ * Las filas se numeran 0..n-1 por caja y n para la fila general.
+ */
+public interface VistaTienda {
+
+    /**
+     * Limpia el panel y coloca las cajas (esquina superior izquierda de cada una)
+     */
+    void preparar(double[] cajaX, double[] cajaY);
+
+    /**
+     * Velocidad actual en ms reales por minuto simulado (0 = máxima), para las animaciones
+     */
+    void setMsPorMinuto(double msPorMinuto);
+
+    void iniciarCuadro();
+
+    void dibujarCaja(int indiceCaja, boolean abierta, int atendidos);
+
+    /**
+     * Lleva al cliente de la fila dada a (x, y); si es nuevo aparece en la
+     * entrada y camina hasta ahí. Si la vista no puede mostrarlo lo suma a la
+     * insignia de su fila.
+     */
+    void dibujarCliente(int fila, int idCliente, boolean pagando, double x, double y);
+
+    /**
+     * Muestra "+ocultos" en (x, y), o nada si ocultos es 0
+     */
+    void dibujarInsignia(int fila, int ocultos, double x, double y);
+
+    /**
+     * Quita a los clientes que no se dibujaron en este cuadro
+     */
+    void terminarCuadro();
+
+    void animar(long ahoraNs);
+}
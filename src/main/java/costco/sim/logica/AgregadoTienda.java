@@ -0,0 +1,56 @@
+package costco.sim.logica;
+
+/**
+ * Totales de toda la tienda que las cajas actualizan con cada cambio
+ * (cajas abiertas, clientes formados y clientes pagando), para leerlos
+ * en O(1) sin recorrer las cajas.
+ */
+public class AgregadoTienda {
+
+    private int cajasAbiertas;
+    private int clientesEnCola;
+    private int clientesPagando;
+
+    public AgregadoTienda() {
+        this.cajasAbiertas = 0;
+        this.clientesEnCola = 0;
+        this.clientesPagando = 0;
+    }
+
+    public void ajustarCajasAbiertas(int delta) {
+        cajasAbiertas += delta;
+    }
+
+    public void ajustarClientesEnCola(int delta) {
+        clientesEnCola += delta;
+    }
+
+    public void ajustarClientesPagando(int delta) {
+        clientesPagando += delta;
+    }
+
+    public int getCajasAbiertas() {
+        return cajasAbiertas;
+    }
+
+    public int getClientesEnCola() {
+        return clientesEnCola;
+    }
+
+    public int getClientesPagando() {
+        return clientesPagando;
+    }
+
+    /**
+     * Clientes formados más los que están pagando
+     */
+    public int getClientesEnCajas() {
+        return clientesEnCola + clientesPagando;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AgregadoTienda[abiertas=%d, enCola=%d, pagando=%d]",
+                cajasAbiertas, clientesEnCola, clientesPagando);
+    }
+}
@@ -0,0 +1,111 @@
+package costco.sim.logica;
+
+import java.util.Arrays;
+
+/**
+ * Almacén columnar de clientes: cada dato vive en su propio arreglo primitivo
+ * indexado por id de cliente, en lugar de un objeto Cliente por persona.
+ * Pensado para corridas largas sin interfaz, donde se guardan millones de clientes
+ * y las estadísticas se calculan recorriendo arreglos contiguos.
+ */
+public class AlmacenClientes {
+
+    private static final Estado[] ESTADOS = Estado.values();
+
+    private double[] llegada;
+    private double[] inicioPago;
+    private double[] finPago;
+    private int[] caja;
+    private byte[] estado;
+    private int idMaximo;
+
+    public AlmacenClientes(int capacidadInicial) {
+        int capacidad = Math.max(capacidadInicial, 16);
+        this.llegada = new double[capacidad];
+        this.inicioPago = new double[capacidad];
+        this.finPago = new double[capacidad];
+        this.caja = new int[capacidad];
+        this.estado = new byte[capacidad];
+        this.idMaximo = 0;
+    }
+
+    /**
+     * Copia los datos del cliente a las columnas de su id
+     */
+    public void registrar(Cliente cliente) {
+        int id = cliente.getId();
+        asegurarCapacidad(id + 1);
+
+        llegada[id] = cliente.getTiempoInicioEspera();
+        inicioPago[id] = cliente.getTiempoInicioPago();
+        finPago[id] = cliente.getTiempoFinPago();
+        caja[id] = cliente.getNumeroCajaAsignada();
+        estado[id] = (byte) cliente.getEstado().ordinal();
+
+        if (id > idMaximo) {
+            idMaximo = id;
+        }
+    }
+
+    /**
+     * Recalcula las estadísticas recorriendo las columnas
+     */
+    public Estadistica generarEstadistica() {
+        Estadistica estadistica = new Estadistica();
+        byte finalizado = (byte) Estado.FINALIZADO.ordinal();
+
+        for (int id = 1; id <= idMaximo; id++) {
+            if (estado[id] == finalizado) {
+                estadistica.registrarTiempos(inicioPago[id] - llegada[id], finPago[id] - inicioPago[id]);
+            }
+        }
+        return estadistica;
+    }
+
+    public void limpiar() {
+        Arrays.fill(estado, 0, idMaximo + 1, (byte) 0);
+        idMaximo = 0;
+    }
+
+    private void asegurarCapacidad(int requerida) {
+        if (requerida <= llegada.length) {
+            return;
+        }
+
+        int nueva = Math.max(requerida, llegada.length * 2);
+        llegada = Arrays.copyOf(llegada, nueva);
+        inicioPago = Arrays.copyOf(inicioPago, nueva);
+        finPago = Arrays.copyOf(finPago, nueva);
+        caja = Arrays.copyOf(caja, nueva);
+        estado = Arrays.copyOf(estado, nueva);
+    }
+
+    public int getIdMaximo() {
+        return idMaximo;
+    }
+
+    public double getLlegada(int id) {
+        return llegada[id];
+    }
+
+    public double getInicioPago(int id) {
+        return inicioPago[id];
+    }
+
+    public double getFinPago(int id) {
+        return finPago[id];
+    }
+
+    public int getCaja(int id) {
+        return caja[id];
+    }
+
+    public Estado getEstado(int id) {
+        return ESTADOS[estado[id]];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AlmacenClientes[clientes=%d, capacidad=%d]", idMaximo, llegada.length);
+    }
+}
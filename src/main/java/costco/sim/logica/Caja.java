@@ -1,5 +1,9 @@
 package costco.sim.logica;
-import java.util.Random;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.random.RandomGenerator;
 
 /**
  * Representa una caja registradora en Costco
@@ -7,25 +11,42 @@ import java.util.Random;
  */
 public class Caja {
 
-    private static final int CAPACIDAD_COLA = 50;
-    private static final double TIEMPO_PAGO_MIN = 3.0;
-    private static final double TIEMPO_PAGO_MAX = 5.0;
-
     private int numeroCaja;
+    private TipoCaja tipo;
+    private DistribucionServicio servicio;
+    private RandomGenerator random;
     private boolean abierta;
     private Cola<Cliente> colaClientes;
     private Cliente clienteActualPagando;
+    private ObservadorCaja observador;
+    private ObservadorPagos observadorPagos;
+    private AgregadoTienda agregado;
+    private RegistroEventos registro;
 
 
     private int clientesAtendidos;
-    private int tiempoAbiertaAcumulado;
-    private int tiempoApertura;
+    private double tiempoAbiertaAcumulado;
+    private double tiempoApertura;
 
 
     public Caja(int numeroCaja) {
+        this(numeroCaja, Escenario.porDefecto());
+    }
+
+    public Caja(int numeroCaja, Escenario escenario) {
+        this(numeroCaja, escenario, new FlujoAleatorio(FlujoAleatorio.fabricaPorDefecto().create(numeroCaja)));
+    }
+
+    /**
+     * Caja con su propio flujo de números aleatorios para los tiempos de pago
+     */
+    public Caja(int numeroCaja, Escenario escenario, RandomGenerator random) {
         this.numeroCaja = numeroCaja;
+        this.tipo = escenario.tipoCaja(numeroCaja);
+        this.servicio = tipo.servicio();
+        this.random = random;
         this.abierta = false;
-        this.colaClientes = new Cola<>(CAPACIDAD_COLA);
+        this.colaClientes = Cola.conCapacidad(escenario.capacidadCola());
         this.clienteActualPagando = null;
         this.clientesAtendidos = 0;
         this.tiempoAbiertaAcumulado = 0;
@@ -33,17 +54,30 @@ public class Caja {
     }
 
 
-    public void abrir(int tiempoActual) {
+    public void abrir(double tiempoActual) {
+        if (!abierta) {
+            if (agregado != null) {
+                agregado.ajustarCajasAbiertas(1);
+            }
+            registrar(TipoRegistro.APERTURA, 0);
+        }
         this.abierta = true;
         this.tiempoApertura = tiempoActual;
+        notificar();
     }
 
 
-    public boolean cerrar(int tiempoActual) {
+    public boolean cerrar(double tiempoActual) {
         if (!estaVacia()) {
             return false;
         }
 
+        if (abierta) {
+            if (agregado != null) {
+                agregado.ajustarCajasAbiertas(-1);
+            }
+            registrar(TipoRegistro.CIERRE, 0);
+        }
         this.abierta = false;
 
         // Acumular tiempo que estuvo abierta
@@ -51,24 +85,50 @@ public class Caja {
             this.tiempoAbiertaAcumulado += (tiempoActual - tiempoApertura);
         }
 
+        notificar();
         return true;
     }
 
-    public void agregarCliente(Cliente cliente) {
+    /**
+     * Forma al cliente en esta caja; si está abierta y libre empieza a cobrarle
+     * en ese mismo instante
+     */
+    public void agregarCliente(Cliente cliente, double tiempoActual) {
         if (colaClientes.insertar(cliente)) {
             cliente.asignarACaja(this.numeroCaja);
+            registrar(TipoRegistro.ASIGNACION, cliente.getId());
+            if (agregado != null) {
+                agregado.ajustarClientesEnCola(1);
+            }
+            if (abierta && clienteActualPagando == null) {
+                iniciarSiguientePago(tiempoActual);
+            }
+            notificar();
         }
     }
 
-    public Cliente procesarPago(int tiempoActual, Random random) {
+    /**
+     * Termina el pago en curso si ya llegó su hora y devuelve a ese cliente; en
+     * ese caso el siguiente de la fila empieza a pagar de inmediato. Si la caja
+     * estaba libre con clientes formados, empieza a cobrarle al primero.
+     */
+    public Cliente procesarPago(double tiempoActual) {
 
         if (clienteActualPagando != null) {
             if (clienteActualPagando.haTerminadoDePagar(tiempoActual)) {
                 clienteActualPagando.terminarPago(tiempoActual);
                 clientesAtendidos++;
+                registrar(TipoRegistro.FIN_PAGO, clienteActualPagando.getId());
 
                 Cliente clienteTerminado = clienteActualPagando;
                 clienteActualPagando = null;
+                if (agregado != null) {
+                    agregado.ajustarClientesPagando(-1);
+                }
+                if (abierta && !colaClientes.estaVacia()) {
+                    iniciarSiguientePago(tiempoActual);
+                }
+                notificar();
 
                 return clienteTerminado;
             }
@@ -76,16 +136,136 @@ public class Caja {
         }
 
         if (!colaClientes.estaVacia()) {
-            clienteActualPagando = colaClientes.eliminar();
-            double tiempoPago = generarTiempoPago(random);
-            clienteActualPagando.iniciarPago(tiempoActual, tiempoPago);
+            iniciarSiguientePago(tiempoActual);
+            notificar();
         }
 
         return null;
     }
 
-    private double generarTiempoPago(Random random) {
-        return TIEMPO_PAGO_MIN + (random.nextDouble() * (TIEMPO_PAGO_MAX - TIEMPO_PAGO_MIN));
+    private void iniciarSiguientePago(double tiempoActual) {
+        clienteActualPagando = colaClientes.eliminar();
+        double tiempoPago = generarTiempoPago();
+        clienteActualPagando.iniciarPago(tiempoActual, tiempoPago);
+        registrar(TipoRegistro.INICIO_PAGO, clienteActualPagando.getId());
+        if (agregado != null) {
+            agregado.ajustarClientesEnCola(-1);
+            agregado.ajustarClientesPagando(1);
+        }
+        if (observadorPagos != null) {
+            observadorPagos.pagoIniciado(this);
+        }
+    }
+
+    /**
+     * Flujo de números aleatorios propio de esta caja para los tiempos de pago.
+     * Solo lo usa esta caja, así cada caja avanza su flujo sin depender del orden
+     * en que se atienden las demás.
+     */
+    public void setGenerador(RandomGenerator random) {
+        this.random = random;
+    }
+
+    public RandomGenerator getGenerador() {
+        return random;
+    }
+
+    /**
+     * Escribe el estado de la caja para un punto de control: apertura, atendidos,
+     * cuánto avanzó su generador, el cliente que paga y su fila en orden.
+     * El generador debe ser un FlujoAleatorio para poder retomarlo.
+     */
+    public void escribirEstado(DataOutput salida) throws IOException {
+        if (!(random instanceof FlujoAleatorio flujo)) {
+            throw new IllegalStateException("La caja " + numeroCaja + " usa un generador sin estado guardable");
+        }
+        salida.writeBoolean(abierta);
+        salida.writeDouble(tiempoApertura);
+        salida.writeDouble(tiempoAbiertaAcumulado);
+        salida.writeInt(clientesAtendidos);
+        salida.writeLong(flujo.getUsados());
+
+        salida.writeBoolean(clienteActualPagando != null);
+        if (clienteActualPagando != null) {
+            clienteActualPagando.escribirEstado(salida);
+        }
+        salida.writeInt(colaClientes.tamanio());
+        for (Cliente cliente : colaClientes) {
+            cliente.escribirEstado(salida);
+        }
+    }
+
+    /**
+     * Retoma lo que escribió escribirEstado en una caja recién creada, cuyo
+     * generador debe ser el mismo flujo nuevo que tenía la original al empezar:
+     * se adelanta hasta donde había quedado.
+     * No avisa al observador ni al agregado; quien restaura los reconstruye.
+     */
+    public void leerEstado(DataInput entrada) throws IOException {
+        if (!estaVacia() || abierta) {
+            throw new IllegalStateException("Solo se puede restaurar una caja nueva");
+        }
+        if (!(random instanceof FlujoAleatorio flujo) || flujo.getUsados() != 0) {
+            throw new IllegalStateException("La caja " + numeroCaja
+                    + " necesita un flujo aleatorio nuevo para restaurarse");
+        }
+        this.abierta = entrada.readBoolean();
+        this.tiempoApertura = entrada.readDouble();
+        this.tiempoAbiertaAcumulado = entrada.readDouble();
+        this.clientesAtendidos = entrada.readInt();
+        flujo.adelantar(entrada.readLong());
+
+        if (entrada.readBoolean()) {
+            this.clienteActualPagando = Cliente.leerEstado(entrada);
+        }
+        int enFila = entrada.readInt();
+        for (int i = 0; i < enFila; i++) {
+            if (!colaClientes.insertar(Cliente.leerEstado(entrada))) {
+                throw new IllegalArgumentException("La fila de la caja " + numeroCaja
+                        + " no cabe en la capacidad del escenario (" + enFila + " clientes)");
+            }
+        }
+    }
+
+    public void setObservador(ObservadorCaja observador) {
+        this.observador = observador;
+    }
+
+    /**
+     * Quien programa el fin de cada pago que empieza esta caja, o null
+     */
+    public void setObservadorPagos(ObservadorPagos observadorPagos) {
+        this.observadorPagos = observadorPagos;
+    }
+
+    /**
+     * Totales de la tienda a los que esta caja reporta sus cambios
+     */
+    public void setAgregado(AgregadoTienda agregado) {
+        this.agregado = agregado;
+    }
+
+    /**
+     * Destino de las transiciones de esta caja, o null para no registrar nada
+     */
+    public void setRegistro(RegistroEventos registro) {
+        this.registro = registro;
+    }
+
+    private void registrar(TipoRegistro tipo, int idCliente) {
+        if (registro != null) {
+            registro.registrar(tipo, numeroCaja, idCliente);
+        }
+    }
+
+    private void notificar() {
+        if (observador != null) {
+            observador.cajaActualizada(this);
+        }
+    }
+
+    private double generarTiempoPago() {
+        return servicio.muestrear(random);
     }
 
 
@@ -113,7 +293,7 @@ public class Caja {
         return colaClientes.estaLlena();
     }
 
-    public int calcularTiempoTotalAbierta(int tiempoActual) {
+    public double calcularTiempoTotalAbierta(double tiempoActual) {
         if (abierta && tiempoApertura > 0) {
             return tiempoAbiertaAcumulado + (tiempoActual - tiempoApertura);
         }
@@ -151,6 +331,10 @@ public class Caja {
         return numeroCaja;
     }
 
+    public TipoCaja getTipo() {
+        return tipo;
+    }
+
     public boolean estaAbierta() {
         return abierta;
     }
@@ -159,7 +343,7 @@ public class Caja {
         return clientesAtendidos;
     }
 
-    public int getTiempoAbierta() {
+    public double getTiempoAbierta() {
         return tiempoAbiertaAcumulado;
     }
 
@@ -1,17 +1,29 @@
 package costco.sim.logica;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Representa un cliente en la simulación.
  */
 public class Cliente {
 
     private int id;
-    private int tiempoInicioEspera;
-    private int tiempoInicioPago;
-    private int tiempoFinPago;
+    private double tiempoInicioEspera;
+    private double tiempoInicioPago;
+    private double tiempoFinPago;
     private Estado estado;
     private int numeroCajaAsignada;
 
     public Cliente(int id) {
+        reiniciar(id);
+    }
+
+    /**
+     * Deja el objeto como recién creado con otro id, para reutilizarlo
+     */
+    public void reiniciar(int id) {
         this.id = id;
         this.estado = Estado.RECIEN_LLEGADO;
         this.numeroCajaAsignada = -1;
@@ -23,7 +35,7 @@ public class Cliente {
     /**
      * Marca cuando el cliente empieza a esperar
      */
-    public void iniciarEspera(int tiempoActual) {
+    public void iniciarEspera(double tiempoActual) {
         this.tiempoInicioEspera = tiempoActual;
     }
 
@@ -41,19 +53,19 @@ public class Cliente {
     }
 
 
-    public void iniciarPago(int tiempoActual, double duracionPago) {
+    public void iniciarPago(double tiempoActual, double duracionPago) {
         this.tiempoInicioPago = tiempoActual;
-        this.tiempoFinPago = (int) Math.ceil(tiempoActual + duracionPago);
+        this.tiempoFinPago = tiempoActual + duracionPago;
         this.estado = Estado.PAGANDO;
     }
 
 
-    public void terminarPago(int tiempoActual) {
+    public void terminarPago(double tiempoActual) {
         this.estado = Estado.FINALIZADO;
     }
 
 
-    public boolean haTerminadoDePagar(int tiempoActual) {
+    public boolean haTerminadoDePagar(double tiempoActual) {
         if (estado != Estado.PAGANDO) {
             return false;
         }
@@ -84,7 +96,7 @@ public class Cliente {
     }
 
 
-    public double getTiempoEsperaActual(int tiempoActual) {
+    public double getTiempoEsperaActual(double tiempoActual) {
         if (estado == Estado.EN_CAJA ||
                 estado == Estado.EN_FILA_GENERAL) {
             return tiempoActual - tiempoInicioEspera;
@@ -108,22 +120,47 @@ public class Cliente {
         return numeroCajaAsignada;
     }
 
-    public int getTiempoInicioEspera() {
+    public double getTiempoInicioEspera() {
         return tiempoInicioEspera;
     }
 
-    public void setTiempoInicioEspera(int tiempoInicioEspera) {
+    public void setTiempoInicioEspera(double tiempoInicioEspera) {
         this.tiempoInicioEspera = tiempoInicioEspera;
     }
 
-    public int getTiempoInicioPago() {
+    public double getTiempoInicioPago() {
         return tiempoInicioPago;
     }
 
-    public int getTiempoFinPago() {
+    public double getTiempoFinPago() {
         return tiempoFinPago;
     }
 
+    /**
+     * Escribe todos los datos del cliente, para un punto de control
+     */
+    public void escribirEstado(DataOutput salida) throws IOException {
+        salida.writeInt(id);
+        salida.writeByte(estado.ordinal());
+        salida.writeInt(numeroCajaAsignada);
+        salida.writeDouble(tiempoInicioEspera);
+        salida.writeDouble(tiempoInicioPago);
+        salida.writeDouble(tiempoFinPago);
+    }
+
+    /**
+     * Cliente tal como lo dejó escribirEstado
+     */
+    public static Cliente leerEstado(DataInput entrada) throws IOException {
+        Cliente cliente = new Cliente(entrada.readInt());
+        cliente.estado = Estado.values()[entrada.readByte()];
+        cliente.numeroCajaAsignada = entrada.readInt();
+        cliente.tiempoInicioEspera = entrada.readDouble();
+        cliente.tiempoInicioPago = entrada.readDouble();
+        cliente.tiempoFinPago = entrada.readDouble();
+        return cliente;
+    }
+
 
     @Override
     public String toString() {
@@ -1,65 +1,86 @@
 package costco.sim.logica;
 
-public class Cola<T> {
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Cola circular: los espacios liberados al eliminar se reutilizan,
+ * por lo que solo se llena cuando realmente contiene MAX elementos.
+ * Con crecer = true duplica su capacidad en lugar de rechazar inserciones.
+ */
+public class Cola<T> implements Iterable<T> {
     private T[] cola;
     private int inicio;
     private int fin;
+    private int cantidad;
     private int MAX;
+    private boolean crecer;
 
     public Cola() {
         this(10);
     }
 
     public Cola(int max) {
-        this.MAX = max;
-        this.inicio = -1;
+        this(max, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Cola(int max, boolean crecer) {
+        this.MAX = Math.max(max, 1);
+        this.crecer = crecer;
+        this.inicio = 0;
         this.fin = -1;
+        this.cantidad = 0;
         this.cola = (T[]) new Object[MAX];
     }
 
     public Cola(Cola<T> original) {
-        this.MAX = original.MAX;
-        this.cola = (T[]) new Object[MAX];
-        this.inicio = -1;
-        this.fin = -1;
+        this(original.MAX, original.crecer);
 
-        if (!original.estaVacia()) {
-            for (int i = original.inicio; i <= original.fin; i++) {
-                this.insertar(original.cola[i]);
-            }
+        for (int i = 0; i < original.cantidad; i++) {
+            this.insertar(original.get(i));
         }
     }
 
+    /**
+     * Cola de tamaño fijo, o que crece según se necesite si capacidad <= 0
+     */
+    public static <T> Cola<T> conCapacidad(int capacidad) {
+        return capacidad > 0 ? new Cola<>(capacidad) : new Cola<>(16, true);
+    }
+
     public boolean insertar(T elemento) {
-        if (fin >= MAX - 1) {
-            return false;
+        if (cantidad == MAX) {
+            if (!crecer) {
+                return false;
+            }
+            redimensionar(MAX * 2);
         }
 
-        fin++;
+        fin = (fin + 1) % MAX;
         cola[fin] = elemento;
-
-        if (inicio == -1) {
-            inicio = 0;
-        }
+        cantidad++;
 
         return true;
     }
 
 
     public T eliminar() {
-        if (inicio == -1) {
+        if (cantidad == 0) {
             return null;
         }
 
         T dato = cola[inicio];
         cola[inicio] = null;
+        inicio = (inicio + 1) % MAX;
+        cantidad--;
 
-        if (inicio == fin) {
+        if (cantidad == 0) {
             // Cola quedó vacía
-            inicio = -1;
+            inicio = 0;
             fin = -1;
-        } else {
-            inicio++;
         }
 
         return dato;
@@ -67,20 +88,101 @@ public class Cola<T> {
 
 
     public T peek() {
-        return (inicio != -1) ? cola[inicio] : null;
+        return (cantidad > 0) ? cola[inicio] : null;
+    }
+
+    /**
+     * Elemento en la posición i contando desde el frente (0 = primero)
+     */
+    public T get(int i) {
+        if (i < 0 || i >= cantidad) {
+            throw new IndexOutOfBoundsException("Índice " + i + " fuera de la cola de tamaño " + cantidad);
+        }
+        return cola[(inicio + i) % MAX];
+    }
+
+
+    /**
+     * Copia los elementos en orden dentro de destino sin modificar la cola.
+     * Si destino no alcanza se crea uno nuevo del mismo tipo; si sobra espacio
+     * la posición siguiente al último elemento queda en null.
+     */
+    public T[] toArray(T[] destino) {
+        if (destino.length < cantidad) {
+            destino = Arrays.copyOf(destino, cantidad);
+        }
+
+        // El contenido ocupa a lo sumo dos tramos contiguos del arreglo
+        int primerTramo = Math.min(cantidad, MAX - inicio);
+        System.arraycopy(cola, inicio, destino, 0, primerTramo);
+        System.arraycopy(cola, 0, destino, primerTramo, cantidad - primerTramo);
+
+        if (destino.length > cantidad) {
+            destino[cantidad] = null;
+        }
+        return destino;
+    }
+
+    /**
+     * Recorre la cola del frente al final sin crear copias
+     */
+    @Override
+    public void forEach(Consumer<? super T> accion) {
+        for (int i = 0; i < cantidad; i++) {
+            accion.accept(cola[(inicio + i) % MAX]);
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int posicion = 0;
+
+            @Override
+            public boolean hasNext() {
+                return posicion < cantidad;
+            }
+
+            @Override
+            public T next() {
+                if (posicion >= cantidad) {
+                    throw new NoSuchElementException();
+                }
+                return cola[(inicio + posicion++) % MAX];
+            }
+        };
     }
 
 
     public boolean estaVacia() {
-        return inicio == -1;
+        return cantidad == 0;
     }
 
     public boolean estaLlena() {
-        return fin == MAX - 1;
+        return !crecer && cantidad == MAX;
     }
 
     public int tamanio() {
-        return (inicio == -1) ? 0 : (fin - inicio + 1);
+        return cantidad;
+    }
+
+    public int capacidad() {
+        return MAX;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void redimensionar(int nuevaCapacidad) {
+        T[] nueva = (T[]) new Object[nuevaCapacidad];
+
+        // Copiar en orden, el frente queda en la posición 0
+        for (int i = 0; i < cantidad; i++) {
+            nueva[i] = cola[(inicio + i) % MAX];
+        }
+
+        cola = nueva;
+        MAX = nuevaCapacidad;
+        inicio = 0;
+        fin = cantidad - 1;
     }
 
 
@@ -91,12 +193,12 @@ public class Cola<T> {
         }
 
         StringBuilder sb = new StringBuilder("Cola [");
-        for (int i = inicio; i <= fin; i++) {
-            sb.append(cola[i]);
-            if (i < fin) sb.append(", ");
+        for (int i = 0; i < cantidad; i++) {
+            sb.append(get(i));
+            if (i < cantidad - 1) sb.append(", ");
         }
         sb.append("]");
 
         return sb.toString();
     }
-}
\ No newline at end of file
+}
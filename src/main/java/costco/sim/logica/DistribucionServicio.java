@@ -0,0 +1,21 @@
+package costco.sim.logica;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Cuánto tarda un cliente en pagar. Muestrear no crea objetos y cuesta O(1);
+ * las implementaciones no cambian después de construirse, así una misma
+ * distribución se comparte entre cajas y simulaciones.
+ */
+public interface DistribucionServicio {
+
+    /**
+     * Un tiempo de pago en minutos, siempre positivo
+     */
+    double muestrear(RandomGenerator random);
+
+    /**
+     * Media teórica en minutos
+     */
+    double media();
+}
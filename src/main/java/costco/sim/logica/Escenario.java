@@ -0,0 +1,99 @@
+package costco.sim.logica;
+
+import java.util.List;
+
+/**
+ * Configuración inmutable de una tienda y su jornada.
+ * Los tiempos están en minutos y las llegadas las decide un ProcesoLlegadas.
+ * tiposCaja da el tipo de cada caja en orden (el primero es la caja 1);
+ * el último tipo se repite para las cajas que falten.
+ * Una capacidad menor o igual a 0 significa
+ * que esa fila no tiene límite y crece según se necesite.
+ */
+public record Escenario(
+        int tiempoSimulacion,
+        int numCajas,
+        int cajasIniciales,
+        ProcesoLlegadas llegadas,
+        int umbralAbrirCaja,
+        int umbralCerrarCaja,
+        List<TipoCaja> tiposCaja,
+        int capacidadCola,
+        int capacidadFilaGeneral,
+        int maxClientesPorCaja) {
+
+    public Escenario {
+        if (tiempoSimulacion < 1) {
+            throw new IllegalArgumentException("La jornada debe durar al menos un minuto");
+        }
+        if (numCajas < 1 || cajasIniciales < 0 || cajasIniciales > numCajas) {
+            throw new IllegalArgumentException("Número de cajas inválido: " + cajasIniciales + "/" + numCajas);
+        }
+        if (llegadas == null) {
+            throw new IllegalArgumentException("Falta el proceso de llegadas");
+        }
+        if (tiposCaja == null || tiposCaja.isEmpty()) {
+            throw new IllegalArgumentException("Se necesita al menos un tipo de caja");
+        }
+        tiposCaja = List.copyOf(tiposCaja);
+        if (maxClientesPorCaja < 1) {
+            throw new IllegalArgumentException("Cada caja debe admitir al menos un cliente");
+        }
+    }
+
+    /**
+     * La tienda original: 12 cajas, 10 horas, filas de 50 y fila general de 100
+     */
+    public static Escenario porDefecto() {
+        return new Escenario(600, 12, 2, new LlegadasUniformes(0.5, 1.0), 4, 3,
+                List.of(TipoCaja.normal(new ServicioUniforme(3.0, 5.0))), 50, 100, 3);
+    }
+
+    public Escenario conTiempoSimulacion(int tiempoSimulacion) {
+        return new Escenario(tiempoSimulacion, numCajas, cajasIniciales, llegadas,
+                umbralAbrirCaja, umbralCerrarCaja, tiposCaja,
+                capacidadCola, capacidadFilaGeneral, maxClientesPorCaja);
+    }
+
+    public Escenario conNumCajas(int numCajas) {
+        return new Escenario(tiempoSimulacion, numCajas, Math.min(cajasIniciales, numCajas),
+                llegadas, umbralAbrirCaja, umbralCerrarCaja,
+                tiposCaja, capacidadCola, capacidadFilaGeneral, maxClientesPorCaja);
+    }
+
+    public Escenario conLlegadas(double tiempoLlegadaMin, double tiempoLlegadaMax) {
+        return conLlegadas(new LlegadasUniformes(tiempoLlegadaMin, tiempoLlegadaMax));
+    }
+
+    public Escenario conLlegadas(ProcesoLlegadas llegadas) {
+        return new Escenario(tiempoSimulacion, numCajas, cajasIniciales, llegadas,
+                umbralAbrirCaja, umbralCerrarCaja, tiposCaja,
+                capacidadCola, capacidadFilaGeneral, maxClientesPorCaja);
+    }
+
+    /**
+     * Todas las cajas iguales, con esta distribución de tiempos de pago
+     */
+    public Escenario conServicio(DistribucionServicio servicio) {
+        return conTiposCaja(List.of(TipoCaja.normal(servicio)));
+    }
+
+    public Escenario conTiposCaja(List<TipoCaja> tiposCaja) {
+        return new Escenario(tiempoSimulacion, numCajas, cajasIniciales, llegadas,
+                umbralAbrirCaja, umbralCerrarCaja, tiposCaja,
+                capacidadCola, capacidadFilaGeneral, maxClientesPorCaja);
+    }
+
+    /**
+     * Tipo de la caja con ese número (desde 1)
+     */
+    public TipoCaja tipoCaja(int numeroCaja) {
+        return tiposCaja.get(Math.min(numeroCaja - 1, tiposCaja.size() - 1));
+    }
+
+    public Escenario conCapacidades(int capacidadCola, int capacidadFilaGeneral) {
+        return new Escenario(tiempoSimulacion, numCajas, cajasIniciales, llegadas,
+                umbralAbrirCaja, umbralCerrarCaja, tiposCaja,
+                capacidadCola, capacidadFilaGeneral, maxClientesPorCaja);
+    }
+}
@@ -1,11 +1,16 @@
 package costco.sim.logica;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 public class Estadistica {
     private int totalClientesAtendidos;
     private double tiempoTotalEspera;
     private double tiempoTotalPago;
     private double tiempoMaximoEspera;
     private double tiempoMinimoEspera;
+    private HistogramaTiempos histogramaEspera;
 
 
     public Estadistica() {
@@ -14,6 +19,7 @@ public class Estadistica {
         this.tiempoTotalPago = 0;
         this.tiempoMaximoEspera = 0;
         this.tiempoMinimoEspera = Double.MAX_VALUE;
+        this.histogramaEspera = new HistogramaTiempos();
     }
 
     public void registrarCliente(Cliente cliente) {
@@ -21,13 +27,18 @@ public class Estadistica {
             return;
         }
 
-        totalClientesAtendidos++;
+        registrarTiempos(cliente.getTiempoEspera(), cliente.getTiempoPago());
+    }
 
-        double tiempoEspera = cliente.getTiempoEspera();
-        double tiempoPago = cliente.getTiempoPago();
+    /**
+     * Registra un cliente finalizado a partir de sus tiempos de espera y pago
+     */
+    public void registrarTiempos(double tiempoEspera, double tiempoPago) {
+        totalClientesAtendidos++;
 
         tiempoTotalEspera += tiempoEspera;
         tiempoTotalPago += tiempoPago;
+        histogramaEspera.registrar(tiempoEspera);
 
         // Actualizar extremos
         if (tiempoEspera > tiempoMaximoEspera) {
@@ -39,6 +50,50 @@ public class Estadistica {
     }
 
 
+    /**
+     * Acumula en esta estadística los clientes registrados en otra
+     * (por ejemplo, de otra réplica de la simulación)
+     */
+    public void combinar(Estadistica otra) {
+        totalClientesAtendidos += otra.totalClientesAtendidos;
+        tiempoTotalEspera += otra.tiempoTotalEspera;
+        tiempoTotalPago += otra.tiempoTotalPago;
+
+        if (otra.tiempoMaximoEspera > tiempoMaximoEspera) {
+            tiempoMaximoEspera = otra.tiempoMaximoEspera;
+        }
+        if (otra.tiempoMinimoEspera < tiempoMinimoEspera) {
+            tiempoMinimoEspera = otra.tiempoMinimoEspera;
+        }
+        histogramaEspera.combinar(otra.histogramaEspera);
+    }
+
+
+    /**
+     * Escribe los totales, los extremos y el histograma, para un punto de control
+     */
+    public void escribirEstado(DataOutput salida) throws IOException {
+        salida.writeInt(totalClientesAtendidos);
+        salida.writeDouble(tiempoTotalEspera);
+        salida.writeDouble(tiempoTotalPago);
+        salida.writeDouble(tiempoMaximoEspera);
+        salida.writeDouble(tiempoMinimoEspera);
+        histogramaEspera.escribirEstado(salida);
+    }
+
+    /**
+     * Reemplaza el contenido por lo que escribió escribirEstado
+     */
+    public void leerEstado(DataInput entrada) throws IOException {
+        totalClientesAtendidos = entrada.readInt();
+        tiempoTotalEspera = entrada.readDouble();
+        tiempoTotalPago = entrada.readDouble();
+        tiempoMaximoEspera = entrada.readDouble();
+        tiempoMinimoEspera = entrada.readDouble();
+        histogramaEspera.leerEstado(entrada);
+    }
+
+
     public double getTiempoPromedioEspera() {
         if (totalClientesAtendidos == 0) {
             return 0;
@@ -82,6 +137,17 @@ public class Estadistica {
         return tiempoMinimoEspera;
     }
 
+    /**
+     * Percentil aproximado del tiempo de espera (0 a 100), p. ej. 90 para p90
+     */
+    public double getPercentilEspera(double percentil) {
+        return histogramaEspera.percentil(percentil);
+    }
+
+    public HistogramaTiempos getHistogramaEspera() {
+        return histogramaEspera;
+    }
+
     public String generarReporte() {
         StringBuilder sb = new StringBuilder();
 
@@ -95,6 +161,8 @@ public class Estadistica {
         sb.append(String.format("  Tiempo promedio total:   %.2f min\n", getTiempoPromedioTotal()));
         sb.append(String.format("  Tiempo máximo espera:    %.2f min\n", tiempoMaximoEspera));
         sb.append(String.format("  Tiempo mínimo espera:    %.2f min\n", getTiempoMinimoEspera()));
+        sb.append(String.format("  Espera p50/p90/p99:      %.2f / %.2f / %.2f min\n",
+                getPercentilEspera(50), getPercentilEspera(90), getPercentilEspera(99)));
         sb.append("\n");
 
         sb.append("-----------------------------------------------\n");
@@ -102,7 +170,7 @@ public class Estadistica {
         return sb.toString();
     }
 
-    public String generarReporteCompleto(java.util.List<Caja> cajas, int tiempoTotal) {
+    public String generarReporteCompleto(java.util.List<Caja> cajas, double tiempoTotal) {
         StringBuilder sb = new StringBuilder();
 
         sb.append(generarReporte());
@@ -111,23 +179,23 @@ public class Estadistica {
         sb.append("ESTADÍSTICAS POR CAJA:\n\n");
 
         int totalClientesCajas = 0;
-        int totalTiempoAbierto = 0;
+        double totalTiempoAbierto = 0;
         int cajasUsadas = 0;
 
         for (Caja caja : cajas) {
             int clientesAtendidos = caja.getClientesAtendidos();
-            int tiempoAbierta = caja.calcularTiempoTotalAbierta(tiempoTotal);
+            double tiempoAbierta = caja.calcularTiempoTotalAbierta(tiempoTotal);
 
             if (clientesAtendidos > 0 || tiempoAbierta > 0) {
                 cajasUsadas++;
                 totalClientesCajas += clientesAtendidos;
                 totalTiempoAbierto += tiempoAbierta;
 
-                sb.append(String.format("  Caja #%-2d:  %3d clientes  |  %3d min abierta",
+                sb.append(String.format("  Caja #%-2d:  %3d clientes  |  %5.1f min abierta",
                         caja.getNumeroCaja(), clientesAtendidos, tiempoAbierta));
 
-                if (clientesAtendidos > 0) {
-                    double clientesPorMinuto = (double) clientesAtendidos / tiempoAbierta;
+                if (clientesAtendidos > 0 && tiempoAbierta > 0) {
+                    double clientesPorMinuto = clientesAtendidos / tiempoAbierta;
                     sb.append(String.format("  |  %.2f cl/min", clientesPorMinuto));
                 }
                 sb.append("\n");
@@ -141,7 +209,7 @@ public class Estadistica {
             sb.append(String.format("Promedio clientes/caja:    %.2f\n",
                     (double) totalClientesCajas / cajasUsadas));
             sb.append(String.format("Promedio tiempo abierta:   %.2f min\n",
-                    (double) totalTiempoAbierto / cajasUsadas));
+                    totalTiempoAbierto / cajasUsadas));
         }
 
         sb.append("\n------------------------------------------------\n");
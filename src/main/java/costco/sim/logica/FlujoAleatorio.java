@@ -0,0 +1,74 @@
+package costco.sim.logica;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Flujo de números aleatorios de la simulación (las llegadas o los pagos de
+ * una caja). Envuelve un generador del JDK y solo cuenta cuántos longs entregó:
+ * todos los demás métodos salen de nextLong, así la secuencia es la misma que
+ * la del generador solo. Los generadores del JDK no dejan leer su estado; para
+ * un punto de control basta la cuenta, porque al retomar el flujo se vuelve a
+ * derivar igual y se adelanta esa cantidad.
+ */
+public final class FlujoAleatorio implements RandomGenerator {
+
+    /**
+     * Algoritmo por defecto: LXM, rápido, sin sincronización y divisible en flujos independientes
+     */
+    public static final String ALGORITMO = "L64X128MixRandom";
+
+    private final RandomGenerator generador;
+    private long usados;
+
+    public FlujoAleatorio(RandomGenerator generador) {
+        this.generador = generador;
+    }
+
+    public static RandomGeneratorFactory<SplittableGenerator> fabricaPorDefecto() {
+        return RandomGeneratorFactory.of(ALGORITMO);
+    }
+
+    /**
+     * Fábrica por nombre de algoritmo; debe dar generadores divisibles
+     */
+    public static RandomGeneratorFactory<SplittableGenerator> fabrica(String algoritmo) {
+        RandomGeneratorFactory<SplittableGenerator> fabrica;
+        try {
+            fabrica = RandomGeneratorFactory.of(algoritmo);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Algoritmo aleatorio desconocido: " + algoritmo, e);
+        }
+        if (!fabrica.isSplittable()) {
+            throw new IllegalArgumentException("El algoritmo " + algoritmo + " no se puede dividir en flujos");
+        }
+        return fabrica;
+    }
+
+    @Override
+    public long nextLong() {
+        usados++;
+        return generador.nextLong();
+    }
+
+    /**
+     * Longs entregados desde que se creó
+     */
+    public long getUsados() {
+        return usados;
+    }
+
+    /**
+     * Descarta la cantidad de longs dada, como si se hubieran usado
+     */
+    public void adelantar(long cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("No se puede adelantar una cantidad negativa: " + cantidad);
+        }
+        for (long i = 0; i < cantidad; i++) {
+            generador.nextLong();
+        }
+        usados += cantidad;
+    }
+}
@@ -0,0 +1,171 @@
+package costco.sim.logica;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Histograma de tiempos (en minutos) con cubetas logarítmicas al estilo HDR:
+ * cada potencia de 2 se divide en SUBCUBETAS partes iguales, así el error
+ * relativo de los percentiles es menor a 1/SUBCUBETAS sin importar la escala.
+ * Usa memoria fija y dos histogramas se combinan sumando sus cubetas.
+ */
+public class HistogramaTiempos {
+
+    private static final int BITS_SUBCUBETA = 5;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int EXPONENTE_MIN = -10;  // ~0.001 min
+    private static final int EXPONENTE_MAX = 14;   // ~16384 min
+    private static final int NUM_CUBETAS = (EXPONENTE_MAX - EXPONENTE_MIN + 1) * SUBCUBETAS + 1;
+
+    private final long[] cubetas;
+    private long total;
+    private double minimo;
+    private double maximo;
+
+    public HistogramaTiempos() {
+        this.cubetas = new long[NUM_CUBETAS];
+        this.total = 0;
+        this.minimo = Double.MAX_VALUE;
+        this.maximo = 0;
+    }
+
+    public void registrar(double tiempo) {
+        cubetas[indiceCubeta(tiempo)]++;
+        total++;
+
+        if (tiempo < minimo) {
+            minimo = tiempo;
+        }
+        if (tiempo > maximo) {
+            maximo = tiempo;
+        }
+    }
+
+    public void combinar(HistogramaTiempos otro) {
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            cubetas[i] += otro.cubetas[i];
+        }
+        total += otro.total;
+
+        if (otro.minimo < minimo) {
+            minimo = otro.minimo;
+        }
+        if (otro.maximo > maximo) {
+            maximo = otro.maximo;
+        }
+    }
+
+    /**
+     * Valor aproximado bajo el cual queda el porcentaje dado de los registros
+     * (percentil entre 0 y 100)
+     */
+    public double percentil(double percentil) {
+        if (total == 0) {
+            return 0;
+        }
+
+        long rango = (long) Math.ceil(percentil / 100.0 * total);
+        rango = Math.max(1, Math.min(rango, total));
+
+        long acumulado = 0;
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            acumulado += cubetas[i];
+            if (acumulado >= rango) {
+                // La última cubeta también junta todo lo que no cabe en la escala
+                if (i == NUM_CUBETAS - 1) {
+                    return maximo;
+                }
+                return Math.max(minimo, Math.min(maximo, valorCubeta(i)));
+            }
+        }
+        return maximo;
+    }
+
+    /**
+     * Escribe solo las cubetas con registros (índice y conteo)
+     */
+    public void escribirEstado(DataOutput salida) throws IOException {
+        int usadas = 0;
+        for (long conteo : cubetas) {
+            if (conteo != 0) {
+                usadas++;
+            }
+        }
+        salida.writeLong(total);
+        salida.writeDouble(minimo);
+        salida.writeDouble(maximo);
+        salida.writeShort(usadas);
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            if (cubetas[i] != 0) {
+                salida.writeShort(i);
+                salida.writeLong(cubetas[i]);
+            }
+        }
+    }
+
+    /**
+     * Reemplaza el contenido por lo que escribió escribirEstado
+     */
+    public void leerEstado(DataInput entrada) throws IOException {
+        Arrays.fill(cubetas, 0);
+        total = entrada.readLong();
+        minimo = entrada.readDouble();
+        maximo = entrada.readDouble();
+        int usadas = entrada.readShort();
+        for (int k = 0; k < usadas; k++) {
+            int indice = entrada.readShort();
+            cubetas[indice] = entrada.readLong();
+        }
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getConteoCubeta(int indice) {
+        return cubetas[indice];
+    }
+
+    public int getNumeroCubetas() {
+        return NUM_CUBETAS;
+    }
+
+    /**
+     * La cubeta 0 guarda los valores menores a 2^EXPONENTE_MIN (incluido el 0);
+     * el resto se indexa por exponente y los bits altos de la mantisa
+     */
+    private static int indiceCubeta(double tiempo) {
+        if (tiempo < Math.scalb(1.0, EXPONENTE_MIN)) {
+            return 0;
+        }
+
+        int exponente = Math.getExponent(tiempo);
+        if (exponente > EXPONENTE_MAX) {
+            return NUM_CUBETAS - 1;
+        }
+
+        int subcubeta = (int) (Double.doubleToRawLongBits(tiempo) >>> (52 - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return 1 + (exponente - EXPONENTE_MIN) * SUBCUBETAS + subcubeta;
+    }
+
+    /**
+     * Punto medio de la cubeta
+     */
+    private static double valorCubeta(int indice) {
+        if (indice == 0) {
+            return 0;
+        }
+
+        int exponente = (indice - 1) / SUBCUBETAS + EXPONENTE_MIN;
+        int subcubeta = (indice - 1) % SUBCUBETAS;
+        return Math.scalb(1.0 + (subcubeta + 0.5) / SUBCUBETAS, exponente);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HistogramaTiempos[n=%d, p50=%.2f, p90=%.2f, p99=%.2f]",
+                total, percentil(50), percentil(90), percentil(99));
+    }
+}
@@ -0,0 +1,87 @@
+package costco.sim.logica;
+
+/**
+ * Intervalo de confianza al 95% para la media de una muestra, con el cuantil
+ * de la t de Student (con pocas réplicas la normal da intervalos demasiado angostos)
+ */
+public class IntervaloConfianza {
+
+    private static final double Z_95 = 1.959964;
+
+    // Cuantil 0.975 de la t de Student para 1 a 30 grados de libertad
+    private static final double[] T_95 = {
+            12.706205, 4.302653, 3.182446, 2.776445, 2.570582,
+            2.446912, 2.364624, 2.306004, 2.262157, 2.228139,
+            2.200985, 2.178813, 2.160369, 2.144787, 2.131450,
+            2.119905, 2.109816, 2.100922, 2.093024, 2.085963,
+            2.079614, 2.073873, 2.068658, 2.063899, 2.059539,
+            2.055529, 2.051831, 2.048407, 2.045230, 2.042272
+    };
+
+    private final int n;
+    private final double media;
+    private final double desviacion;
+    private final double semiAncho;
+
+    public IntervaloConfianza(double[] muestra) {
+        this.n = muestra.length;
+
+        double suma = 0;
+        for (double valor : muestra) {
+            suma += valor;
+        }
+        this.media = n > 0 ? suma / n : 0;
+
+        double sumaCuadrados = 0;
+        for (double valor : muestra) {
+            sumaCuadrados += (valor - media) * (valor - media);
+        }
+        this.desviacion = n > 1 ? Math.sqrt(sumaCuadrados / (n - 1)) : 0;
+        this.semiAncho = n > 1 ? cuantilT(n - 1) * desviacion / Math.sqrt(n) : 0;
+    }
+
+    /**
+     * Cuantil 0.975 de la t con los grados de libertad dados; arriba de la tabla
+     * se corrige el de la normal con los dos primeros términos de Cornish-Fisher
+     */
+    static double cuantilT(int gradosLibertad) {
+        if (gradosLibertad < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un grado de libertad");
+        }
+        if (gradosLibertad <= T_95.length) {
+            return T_95[gradosLibertad - 1];
+        }
+        double z = Z_95, z3 = z * z * z, z5 = z3 * z * z;
+        double v = gradosLibertad;
+        return z + (z3 + z) / (4 * v) + (5 * z5 + 16 * z3 + 3 * z) / (96 * v * v);
+    }
+
+    public int getTamanioMuestra() {
+        return n;
+    }
+
+    public double getMedia() {
+        return media;
+    }
+
+    public double getDesviacion() {
+        return desviacion;
+    }
+
+    public double getSemiAncho() {
+        return semiAncho;
+    }
+
+    public double getInferior() {
+        return media - semiAncho;
+    }
+
+    public double getSuperior() {
+        return media + semiAncho;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.3f ± %.3f [%.3f, %.3f]", media, semiAncho, getInferior(), getSuperior());
+    }
+}
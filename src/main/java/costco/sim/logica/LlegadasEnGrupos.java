@@ -0,0 +1,34 @@
+package costco.sim.logica;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Llegadas en grupo (familias, autobuses): los momentos los decide otro proceso
+ * y en cada uno entra un grupo de tamaño geométrico con la media dada (mínimo 1)
+ */
+public record LlegadasEnGrupos(ProcesoLlegadas base, double tamanioMedio) implements ProcesoLlegadas {
+
+    public LlegadasEnGrupos {
+        if (base == null) {
+            throw new IllegalArgumentException("Falta el proceso de llegadas base");
+        }
+        if (!(tamanioMedio >= 1) || Double.isInfinite(tamanioMedio)) {
+            throw new IllegalArgumentException("El tamaño medio de grupo debe ser al menos 1");
+        }
+    }
+
+    @Override
+    public double siguienteLlegada(double tiempoActual, RandomGenerator random) {
+        return base.siguienteLlegada(tiempoActual, random);
+    }
+
+    @Override
+    public int tamanioGrupo(RandomGenerator random) {
+        if (tamanioMedio == 1) {
+            return 1;
+        }
+        // Geométrica en {1, 2, ...} con p = 1 / media
+        double u = 1 - random.nextDouble();
+        return 1 + (int) Math.min(Math.floor(Math.log(u) / Math.log1p(-1 / tamanioMedio)), Integer.MAX_VALUE - 1);
+    }
+}
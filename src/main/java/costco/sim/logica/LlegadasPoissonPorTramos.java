@@ -0,0 +1,112 @@
+package costco.sim.logica;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Llegadas de Poisson no homogéneas: la tasa (clientes por minuto) se da en
+ * algunos minutos del día y entre ellos cambia en línea recta; después del
+ * último se queda fija. Así se modelan los picos de la comida y la salida del trabajo.
+ *
+ * Se genera por adelgazamiento (thinning) tramo por tramo: dentro de cada tramo
+ * se proponen llegadas con la tasa máxima del tramo y se acepta cada una con
+ * probabilidad tasa(t) / máxima. Como la cota es la del tramo y no la del día,
+ * casi todas se aceptan y cada llegada cuesta O(1) aunque la tasa sea de cientos por minuto.
+ */
+public final class LlegadasPoissonPorTramos implements ProcesoLlegadas {
+
+    private final double[] minutos;
+    private final double[] tasas;
+    private final double[] cotas;
+
+    /**
+     * minutos debe empezar en 0 y ser creciente; tasas[i] es la tasa en minutos[i]
+     */
+    public LlegadasPoissonPorTramos(double[] minutos, double[] tasas) {
+        if (minutos.length == 0 || minutos.length != tasas.length) {
+            throw new IllegalArgumentException("Se necesita una tasa por cada minuto");
+        }
+        if (minutos[0] != 0) {
+            throw new IllegalArgumentException("El primer tramo debe empezar en el minuto 0");
+        }
+        boolean hayLlegadas = false;
+        for (int i = 0; i < minutos.length; i++) {
+            if (i > 0 && minutos[i] <= minutos[i - 1]) {
+                throw new IllegalArgumentException("Los minutos de los tramos deben ser crecientes");
+            }
+            if (!(tasas[i] >= 0) || Double.isInfinite(tasas[i])) {
+                throw new IllegalArgumentException("Tasa de llegadas inválida: " + tasas[i]);
+            }
+            hayLlegadas |= tasas[i] > 0;
+        }
+        if (!hayLlegadas) {
+            throw new IllegalArgumentException("Alguna tasa debe ser positiva");
+        }
+
+        this.minutos = minutos.clone();
+        this.tasas = tasas.clone();
+        this.cotas = new double[minutos.length];
+        for (int i = 0; i < minutos.length; i++) {
+            cotas[i] = i + 1 < minutos.length ? Math.max(tasas[i], tasas[i + 1]) : tasas[i];
+        }
+    }
+
+    @Override
+    public double siguienteLlegada(double tiempoActual, RandomGenerator random) {
+        double t = tiempoActual;
+        int tramo = tramo(t);
+
+        while (true) {
+            double finTramo = tramo + 1 < minutos.length ? minutos[tramo + 1] : Double.POSITIVE_INFINITY;
+            double cota = cotas[tramo];
+            if (cota <= 0) {
+                if (finTramo == Double.POSITIVE_INFINITY) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                t = finTramo;
+                tramo++;
+                continue;
+            }
+
+            t += random.nextExponential() / cota;
+            if (t >= finTramo) {
+                // Sin memoria: se vuelve a proponer desde el inicio del tramo siguiente
+                t = finTramo;
+                tramo++;
+                continue;
+            }
+            if (random.nextDouble() * cota <= tasa(tramo, t)) {
+                return t;
+            }
+        }
+    }
+
+    /**
+     * Tasa en el minuto dado
+     */
+    public double tasa(double minuto) {
+        return tasa(tramo(minuto), minuto);
+    }
+
+    private double tasa(int tramo, double minuto) {
+        if (tramo + 1 >= minutos.length) {
+            return tasas[tramo];
+        }
+        double fraccion = (minuto - minutos[tramo]) / (minutos[tramo + 1] - minutos[tramo]);
+        return tasas[tramo] + fraccion * (tasas[tramo + 1] - tasas[tramo]);
+    }
+
+    private int tramo(double minuto) {
+        int i = Arrays.binarySearch(minutos, minuto);
+        return i >= 0 ? i : Math.max(0, -i - 2);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("LlegadasPoissonPorTramos[");
+        for (int i = 0; i < minutos.length; i++) {
+            sb.append(i > 0 ? ", " : "").append(minutos[i]).append(':').append(tasas[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,20 @@
+package costco.sim.logica;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Tiempo entre llegadas uniforme entre un mínimo y un máximo, igual todo el día
+ */
+public record LlegadasUniformes(double tiempoMin, double tiempoMax) implements ProcesoLlegadas {
+
+    public LlegadasUniformes {
+        if (tiempoMin <= 0 || tiempoMax < tiempoMin) {
+            throw new IllegalArgumentException("Rango de llegadas inválido");
+        }
+    }
+
+    @Override
+    public double siguienteLlegada(double tiempoActual, RandomGenerator random) {
+        return tiempoActual + (tiempoMin + (random.nextDouble() * (tiempoMax - tiempoMin)));
+    }
+}
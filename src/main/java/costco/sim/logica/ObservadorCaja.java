@@ -0,0 +1,9 @@
+package costco.sim.logica;
+
+/**
+ * Recibe aviso cada vez que una caja abre, cierra o cambia su cantidad de clientes
+ */
+public interface ObservadorCaja {
+
+    void cajaActualizada(Caja caja);
+}
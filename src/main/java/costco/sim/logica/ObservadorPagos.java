@@ -0,0 +1,10 @@
+package costco.sim.logica;
+
+/**
+ * Recibe aviso cada vez que una caja empieza a cobrarle a un cliente,
+ * para programar el fin de ese pago
+ */
+public interface ObservadorPagos {
+
+    void pagoIniciado(Caja caja);
+}
@@ -0,0 +1,24 @@
+package costco.sim.logica;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Cuándo llegan los clientes a la tienda.
+ * Las implementaciones no guardan estado entre llamadas, así un mismo
+ * Escenario se puede usar en varias simulaciones a la vez.
+ */
+public interface ProcesoLlegadas {
+
+    /**
+     * Tiempo (absoluto, en minutos) de la siguiente llegada después de tiempoActual,
+     * o infinito si ya no llega nadie
+     */
+    double siguienteLlegada(double tiempoActual, RandomGenerator random);
+
+    /**
+     * Cuántos clientes entran juntos en una llegada
+     */
+    default int tamanioGrupo(RandomGenerator random) {
+        return 1;
+    }
+}
@@ -0,0 +1,11 @@
+package costco.sim.logica;
+
+/**
+ * Recibe cada transición de la simulación (llegadas, asignaciones, pagos,
+ * aperturas y cierres) para guardarla. El tiempo lo pone quien registra.
+ * numeroCaja es 0 si la transición no tiene caja; idCliente es 0 si no tiene cliente.
+ */
+public interface RegistroEventos {
+
+    void registrar(TipoRegistro tipo, int numeroCaja, int idCliente);
+}
@@ -0,0 +1,126 @@
+package costco.sim.logica;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Tiempos de pago medidos en una tienda real, cada uno con su peso.
+ * Se muestrea con una tabla de alias (método de Vose) armada una sola vez:
+ * un entero y un double por muestra, sin búsquedas ni objetos.
+ */
+public final class ServicioEmpirico implements DistribucionServicio {
+
+    private final double[] tiempos;
+    private final double[] probabilidad;
+    private final int[] alias;
+    private final double media;
+
+    public ServicioEmpirico(double[] tiempos, double[] pesos) {
+        int n = tiempos.length;
+        if (n == 0 || pesos.length != n) {
+            throw new IllegalArgumentException("Se necesita un peso por cada tiempo");
+        }
+
+        double total = 0;
+        double suma = 0;
+        for (int i = 0; i < n; i++) {
+            if (!(tiempos[i] > 0) || Double.isInfinite(tiempos[i])) {
+                throw new IllegalArgumentException("Tiempo de pago inválido: " + tiempos[i]);
+            }
+            if (!(pesos[i] >= 0) || Double.isInfinite(pesos[i])) {
+                throw new IllegalArgumentException("Peso inválido: " + pesos[i]);
+            }
+            total += pesos[i];
+            suma += tiempos[i] * pesos[i];
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Algún peso debe ser positivo");
+        }
+
+        this.tiempos = tiempos.clone();
+        this.media = suma / total;
+        this.probabilidad = new double[n];
+        this.alias = new int[n];
+
+        // Vose: se reparte cada columna "chica" con una "grande" hasta que todas miden 1
+        double[] escalada = new double[n];
+        int[] chicas = new int[n];
+        int[] grandes = new int[n];
+        int numChicas = 0, numGrandes = 0;
+        for (int i = 0; i < n; i++) {
+            escalada[i] = pesos[i] * n / total;
+            if (escalada[i] < 1) {
+                chicas[numChicas++] = i;
+            } else {
+                grandes[numGrandes++] = i;
+            }
+        }
+        while (numChicas > 0 && numGrandes > 0) {
+            int chica = chicas[--numChicas];
+            int grande = grandes[--numGrandes];
+            probabilidad[chica] = escalada[chica];
+            alias[chica] = grande;
+            escalada[grande] = (escalada[grande] + escalada[chica]) - 1;
+            if (escalada[grande] < 1) {
+                chicas[numChicas++] = grande;
+            } else {
+                grandes[numGrandes++] = grande;
+            }
+        }
+        // Lo que queda mide 1 salvo por redondeo
+        while (numGrandes > 0) {
+            probabilidad[grandes[--numGrandes]] = 1;
+        }
+        while (numChicas > 0) {
+            probabilidad[chicas[--numChicas]] = 1;
+        }
+    }
+
+    /**
+     * Lee un tiempo por renglón, opcionalmente seguido de su peso
+     * ("3.5" o "3.5 12"); los renglones vacíos o que empiezan con # se ignoran
+     */
+    public static ServicioEmpirico desdeArchivo(Path archivo) throws IOException {
+        List<String> renglones = Files.readAllLines(archivo);
+        double[] tiempos = new double[renglones.size()];
+        double[] pesos = new double[renglones.size()];
+        int n = 0;
+
+        for (String renglon : renglones) {
+            String limpio = renglon.trim();
+            if (limpio.isEmpty() || limpio.startsWith("#")) {
+                continue;
+            }
+            String[] partes = limpio.split("[\\s,;]+");
+            try {
+                tiempos[n] = Double.parseDouble(partes[0]);
+                pesos[n] = partes.length > 1 ? Double.parseDouble(partes[1]) : 1;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Renglón inválido en " + archivo + ": " + renglon);
+            }
+            n++;
+        }
+
+        return new ServicioEmpirico(Arrays.copyOf(tiempos, n), Arrays.copyOf(pesos, n));
+    }
+
+    @Override
+    public double muestrear(RandomGenerator random) {
+        int i = random.nextInt(tiempos.length);
+        return random.nextDouble() < probabilidad[i] ? tiempos[i] : tiempos[alias[i]];
+    }
+
+    @Override
+    public double media() {
+        return media;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ServicioEmpirico[%d tiempos, media=%.3f]", tiempos.length, media);
+    }
+}
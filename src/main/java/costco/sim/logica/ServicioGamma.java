@@ -0,0 +1,63 @@
+package costco.sim.logica;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Tiempo de pago gamma con forma k y escala theta (media k * theta).
+ * Se muestrea con el método de Marsaglia y Tsang: un normal, un uniforme y
+ * casi nunca un rechazo. Para k < 1 se muestrea con k + 1 y se corrige con U^(1/k).
+ */
+public final class ServicioGamma implements DistribucionServicio {
+
+    private final double forma;
+    private final double escala;
+    private final double d;
+    private final double c;
+    private final boolean formaMenorQueUno;
+
+    public ServicioGamma(double forma, double escala) {
+        if (!(forma > 0) || !(escala > 0) || Double.isInfinite(forma) || Double.isInfinite(escala)) {
+            throw new IllegalArgumentException("Forma y escala deben ser positivas");
+        }
+        this.forma = forma;
+        this.escala = escala;
+        this.formaMenorQueUno = forma < 1;
+        this.d = (formaMenorQueUno ? forma + 1 : forma) - 1.0 / 3;
+        this.c = 1 / Math.sqrt(9 * d);
+    }
+
+    @Override
+    public double muestrear(RandomGenerator random) {
+        double x;
+        while (true) {
+            double z = random.nextGaussian();
+            double v = 1 + c * z;
+            if (v <= 0) {
+                continue;
+            }
+            v = v * v * v;
+            double u = random.nextDouble();
+            // Aceptación rápida; casi siempre basta con ella
+            if (u < 1 - 0.0331 * z * z * z * z || Math.log(u) < 0.5 * z * z + d * (1 - v + Math.log(v))) {
+                x = d * v;
+                break;
+            }
+        }
+
+        if (formaMenorQueUno) {
+            x *= Math.pow(1 - random.nextDouble(), 1 / forma);
+        }
+        // El pago nunca dura cero
+        return Math.max(x * escala, Double.MIN_NORMAL);
+    }
+
+    @Override
+    public double media() {
+        return forma * escala;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ServicioGamma[forma=%.3f, escala=%.3f]", forma, escala);
+    }
+}
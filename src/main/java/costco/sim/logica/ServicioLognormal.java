@@ -0,0 +1,41 @@
+package costco.sim.logica;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Tiempo de pago lognormal, dado por su media y desviación estándar en minutos
+ * (no las del logaritmo). Tiene la cola larga de los clientes con carrito lleno.
+ */
+public final class ServicioLognormal implements DistribucionServicio {
+
+    private final double media;
+    private final double desviacion;
+    private final double mu;
+    private final double sigma;
+
+    public ServicioLognormal(double media, double desviacion) {
+        if (!(media > 0) || !(desviacion > 0) || Double.isInfinite(media) || Double.isInfinite(desviacion)) {
+            throw new IllegalArgumentException("Media y desviación deben ser positivas");
+        }
+        this.media = media;
+        this.desviacion = desviacion;
+        double varianzaLog = Math.log1p((desviacion * desviacion) / (media * media));
+        this.sigma = Math.sqrt(varianzaLog);
+        this.mu = Math.log(media) - varianzaLog / 2;
+    }
+
+    @Override
+    public double muestrear(RandomGenerator random) {
+        return Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    @Override
+    public double media() {
+        return media;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ServicioLognormal[media=%.3f, desviacion=%.3f]", media, desviacion);
+    }
+}
@@ -0,0 +1,25 @@
+package costco.sim.logica;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Tiempo de pago uniforme entre un mínimo y un máximo
+ */
+public record ServicioUniforme(double minimo, double maximo) implements DistribucionServicio {
+
+    public ServicioUniforme {
+        if (minimo <= 0 || maximo < minimo) {
+            throw new IllegalArgumentException("Rango de tiempos de pago inválido");
+        }
+    }
+
+    @Override
+    public double muestrear(RandomGenerator random) {
+        return minimo + (random.nextDouble() * (maximo - minimo));
+    }
+
+    @Override
+    public double media() {
+        return (minimo + maximo) / 2;
+    }
+}
@@ -0,0 +1,17 @@
+package costco.sim.logica;
+
+/**
+ * Clase de caja (normal, rápida, autocobro...) con su propia distribución de tiempos de pago
+ */
+public record TipoCaja(String nombre, DistribucionServicio servicio) {
+
+    public TipoCaja {
+        if (nombre == null || servicio == null) {
+            throw new IllegalArgumentException("El tipo de caja necesita nombre y distribución");
+        }
+    }
+
+    public static TipoCaja normal(DistribucionServicio servicio) {
+        return new TipoCaja("normal", servicio);
+    }
+}
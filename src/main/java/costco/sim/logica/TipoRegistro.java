@@ -0,0 +1,14 @@
+package costco.sim.logica;
+
+/**
+ * Transiciones que quedan en el registro de eventos de una jornada
+ */
+public enum TipoRegistro {
+    LLEGADA,
+    FILA_GENERAL,
+    ASIGNACION,
+    INICIO_PAGO,
+    FIN_PAGO,
+    APERTURA,
+    CIERRE
+}
@@ -11,6 +11,7 @@ module costco.sim {
     requires eu.hansolo.tilesfx;
     requires com.almasb.fxgl.all;
     requires java.desktop;
+    requires jdk.random;
 
     opens costco.sim to javafx.fxml;
     exports costco.sim;
@@ -0,0 +1,53 @@
+package costco.sim.Simulaciones;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConjuntoIndicesTest {
+
+    @Test
+    void vacioNoTienePrimeroNiUltimo() {
+        ConjuntoIndices conjunto = new ConjuntoIndices(10);
+        assertEquals(-1, conjunto.primero());
+        assertEquals(-1, conjunto.ultimo());
+    }
+
+    @Test
+    void quitarLoQueNoEstaNoCambiaNada() {
+        ConjuntoIndices conjunto = new ConjuntoIndices(200);
+        conjunto.agregar(130);
+        conjunto.quitar(131);
+        conjunto.quitar(5);
+        assertEquals(130, conjunto.primero());
+        assertEquals(130, conjunto.ultimo());
+    }
+
+    @Test
+    void coincideConUnTreeSetEnVariosNiveles() {
+        // 5000 índices ocupan tres niveles de palabras
+        int n = 5000;
+        ConjuntoIndices conjunto = new ConjuntoIndices(n);
+        TreeSet<Integer> esperado = new TreeSet<>();
+        Random random = new Random(3);
+
+        for (int paso = 0; paso < 100_000; paso++) {
+            // Concentrado en pocos índices para que las palabras se vacíen seguido
+            int i = random.nextBoolean() ? random.nextInt(n) : 4096 + random.nextInt(8);
+            boolean presente = random.nextInt(3) > 0 ? random.nextBoolean() : false;
+            conjunto.poner(i, presente);
+            if (presente) {
+                esperado.add(i);
+            } else {
+                esperado.remove(i);
+            }
+
+            assertEquals(esperado.contains(i), conjunto.contiene(i));
+            assertEquals(esperado.isEmpty() ? -1 : esperado.first(), conjunto.primero());
+            assertEquals(esperado.isEmpty() ? -1 : esperado.last(), conjunto.ultimo());
+        }
+    }
+}
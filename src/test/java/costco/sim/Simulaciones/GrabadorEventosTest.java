@@ -0,0 +1,140 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Escenario;
+import costco.sim.logica.LlegadasUniformes;
+import costco.sim.logica.ServicioUniforme;
+import costco.sim.logica.TipoCaja;
+import costco.sim.logica.TipoRegistro;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrabadorEventosTest {
+
+    @TempDir
+    Path carpeta;
+
+    @Test
+    void conBufferYMapeadoEscribenLosMismosBytes() throws IOException {
+        Path conBuffer = grabarJornada("buffer.bin", false);
+        Path mapeado = grabarJornada("mapeado.bin", true);
+
+        assertArrayEquals(Files.readAllBytes(conBuffer), Files.readAllBytes(mapeado));
+    }
+
+    @Test
+    void losRegistrosSeLeenDeVuelta() throws IOException {
+        Escenario escenario = Escenario.porDefecto();
+        Simulacion simulacion = new SimulacionMultiplesFilas(21, escenario);
+        Path archivo = carpeta.resolve("jornada.bin");
+        long registros;
+        try (GrabadorEventos grabador = new GrabadorEventos(archivo, true)) {
+            grabador.grabar(simulacion);
+            simulacion.iniciar();
+            simulacion.avanzarHasta(escenario.tiempoSimulacion());
+            registros = grabador.getRegistros();
+        }
+
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(archivo)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(GrabadorEventos.TAMANIO_ENCABEZADO + registros * GrabadorEventos.TAMANIO_REGISTRO,
+                bytes.capacity());
+        assertEquals(GrabadorEventos.MAGIA, bytes.getInt(0));
+        assertEquals(GrabadorEventos.VERSION, bytes.getShort(4));
+        assertEquals(GrabadorEventos.TAMANIO_REGISTRO, bytes.getShort(6));
+        assertEquals(21, bytes.getLong(8));
+        assertEquals(escenario.numCajas(), bytes.getInt(16));
+        assertEquals(escenario.tiempoSimulacion(), bytes.getInt(20));
+        assertEquals(0, bytes.get(24));
+
+        int atendidos = 0;
+        double anterior = 0;
+        for (long i = 0; i < registros; i++) {
+            int inicio = (int) (GrabadorEventos.TAMANIO_ENCABEZADO + i * GrabadorEventos.TAMANIO_REGISTRO);
+            double tiempo = bytes.getDouble(inicio);
+            int numeroCaja = Short.toUnsignedInt(bytes.getShort(inicio + 12));
+            int tipo = bytes.get(inicio + 14);
+
+            assertTrue(tiempo >= anterior, "registro " + i + " fuera de orden");
+            assertTrue(numeroCaja >= 0 && numeroCaja <= escenario.numCajas());
+            assertTrue(tipo >= 1 && tipo <= TipoRegistro.values().length);
+            if (TipoRegistro.values()[tipo - 1] == TipoRegistro.FIN_PAGO) {
+                atendidos++;
+            }
+            anterior = tiempo;
+        }
+        assertEquals(simulacion.getEstadisticas().getTotalClientesAtendidos(), atendidos);
+
+        try (ReproductorEventos reproductor = new ReproductorEventos(archivo)) {
+            assertEquals(registros, reproductor.getTotalRegistros());
+            reproductor.irA(reproductor.getTiempoFinal());
+            assertEquals(atendidos, reproductor.instantanea().getClientesAtendidos());
+        }
+    }
+
+    @Test
+    void reproduceNumerosDeCajaMayoresAUnShort() throws IOException {
+        // Todas abiertas desde el principio y llegadas muy seguidas: se usan cajas por encima de 32767
+        Escenario grande = escenarioConCajas(40_000);
+        Simulacion simulacion = new SimulacionMultiplesFilas(1, grande);
+        Path archivo = carpeta.resolve("grande.bin");
+        try (GrabadorEventos grabador = new GrabadorEventos(archivo, false)) {
+            grabador.grabar(simulacion);
+            simulacion.iniciar();
+            simulacion.avanzarHasta(4);
+        }
+        assertTrue(simulacion.getCajas().get(35_000).tieneClientePagando());
+
+        InstantaneaSimulacion enVivo = new InstantaneaSimulacion(simulacion);
+        try (ReproductorEventos reproductor = new ReproductorEventos(archivo)) {
+            reproductor.irA(4);
+            InstantaneaSimulacion reproducida = reproductor.instantanea();
+            assertEquals(enVivo.getNumeroCajas(), reproducida.getNumeroCajas());
+            for (int i = 0; i < enVivo.getNumeroCajas(); i++) {
+                assertEquals(enVivo.cajaAbierta(i), reproducida.cajaAbierta(i), "caja " + i);
+                assertEquals(enVivo.getClientePagando(i), reproducida.getClientePagando(i), "caja " + i);
+                assertEquals(enVivo.getAtendidos(i), reproducida.getAtendidos(i), "caja " + i);
+                assertEquals(enVivo.getTamanioFila(i), reproducida.getTamanioFila(i), "caja " + i);
+            }
+            assertEquals(enVivo.getClientesAtendidos(), reproducida.getClientesAtendidos());
+        }
+    }
+
+    @Test
+    void rechazaMasCajasDeLasQueCabenEnElRegistro() throws IOException {
+        Simulacion simulacion = new SimulacionMultiplesFilas(1, escenarioConCajas(GrabadorEventos.MAXIMO_CAJAS + 1));
+        try (GrabadorEventos grabador = new GrabadorEventos(carpeta.resolve("demasiadas.bin"), false)) {
+            assertThrows(IllegalArgumentException.class, () -> grabador.grabar(simulacion));
+        }
+    }
+
+    @Test
+    void mapeadoSinJornadaQuedaVacio() throws IOException {
+        Path archivo = carpeta.resolve("vacio.bin");
+        new GrabadorEventos(archivo, true).close();
+        assertEquals(0, Files.size(archivo));
+    }
+
+    private static Escenario escenarioConCajas(int cajas) {
+        return new Escenario(10, cajas, cajas, new LlegadasUniformes(0.00005, 0.00015), 4, 3,
+                List.of(TipoCaja.normal(new ServicioUniforme(3.0, 5.0))), 50, 100, 3);
+    }
+
+    private Path grabarJornada(String nombre, boolean mapeado) throws IOException {
+        Simulacion simulacion = new SimulacionFilaUnica(9, Escenario.porDefecto());
+        Path archivo = carpeta.resolve(nombre);
+        try (GrabadorEventos grabador = new GrabadorEventos(archivo, mapeado)) {
+            grabador.grabar(simulacion);
+            simulacion.iniciar();
+            simulacion.avanzarHasta(simulacion.getTiempoSimulacion());
+        }
+        return archivo;
+    }
+}
@@ -0,0 +1,229 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Caja;
+import costco.sim.logica.Cliente;
+import costco.sim.logica.Escenario;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceCajasTest {
+
+    private static final int UMBRAL_SATURACION = 2;
+    private static final int MAX_CLIENTES_POR_CAJA = 3;
+    // Fila de 4 más el que paga: una caja puede pasar del máximo y llenar su fila
+    private static final Escenario ESCENARIO = Escenario.porDefecto().conCapacidades(4, 100);
+
+    private int siguienteId = 1;
+
+    @Test
+    void sinCajasAbiertasNoHayMenosOcupada() {
+        List<Caja> cajas = crearCajas(5);
+        IndiceCajas indice = new IndiceCajas(cajas, UMBRAL_SATURACION, MAX_CLIENTES_POR_CAJA);
+
+        assertEquals(-1, indice.cajaMenosOcupada());
+        assertEquals(-1, indice.primeraAbierta());
+        assertEquals(-1, indice.ultimaAbiertaVacia());
+        assertEquals(-1, indice.primeraConLugar());
+        assertEquals(0, indice.primeraCerrada());
+        assertEquals(0, indice.getCajasSaturadas());
+        assertEquals(0, indice.getCajasLlenas());
+    }
+
+    @Test
+    void tomaEnCuentaLasCajasAbiertasAlCrearse() {
+        List<Caja> cajas = crearCajas(4);
+        cajas.get(2).abrir(0);
+        cajas.get(3).abrir(0);
+        formar(cajas.get(2), 2);
+        IndiceCajas indice = new IndiceCajas(cajas, UMBRAL_SATURACION, MAX_CLIENTES_POR_CAJA);
+
+        assertEquals(3, indice.cajaMenosOcupada());
+        assertEquals(2, indice.primeraAbierta());
+        assertEquals(3, indice.ultimaAbiertaVacia());
+    }
+
+    @Test
+    void abrirLlenarYCerrarUnaCaja() {
+        List<Caja> cajas = crearCajas(3);
+        IndiceCajas indice = new IndiceCajas(cajas, UMBRAL_SATURACION, MAX_CLIENTES_POR_CAJA);
+        Caja caja = cajas.get(1);
+
+        caja.abrir(0);
+        assertEquals(1, indice.cajaMenosOcupada());
+        assertEquals(1, indice.ultimaAbiertaVacia());
+        assertEquals(0, indice.primeraCerrada());
+
+        // Con 3 clientes está saturada y llena, pero su fila todavía tiene lugar
+        formar(caja, 3);
+        assertEquals(1, indice.getCajasSaturadas());
+        assertEquals(1, indice.getCajasLlenas());
+        assertEquals(1, indice.cajaMenosOcupada());
+        assertEquals(-1, indice.primeraConLugar());
+        assertEquals(-1, indice.ultimaAbiertaVacia());
+
+        // Con la fila llena sale del montículo
+        formar(caja, 2);
+        assertTrue(caja.colaLlena());
+        assertEquals(-1, indice.cajaMenosOcupada());
+
+        // Atender a todos la devuelve al montículo y la deja vacía
+        atenderTodos(caja);
+        assertEquals(1, indice.cajaMenosOcupada());
+        assertEquals(0, indice.getCajasSaturadas());
+        assertEquals(0, indice.getCajasLlenas());
+        assertEquals(1, indice.primeraConLugar());
+
+        assertTrue(caja.cerrar(1e9));
+        assertEquals(-1, indice.cajaMenosOcupada());
+        assertEquals(-1, indice.primeraAbierta());
+        assertEquals(0, indice.primeraCerrada());
+    }
+
+    @Test
+    void cerrarUnaCajaLlenaDescuentaSusContadores() {
+        List<Caja> cajas = crearCajas(2);
+        IndiceCajas indice = new IndiceCajas(cajas, UMBRAL_SATURACION, MAX_CLIENTES_POR_CAJA);
+        Caja caja = cajas.get(0);
+
+        caja.abrir(0);
+        formar(caja, 4);
+        assertEquals(1, indice.getCajasSaturadas());
+        assertEquals(1, indice.getCajasLlenas());
+
+        // No se puede cerrar con clientes; atendidos todos, se cierra y deja de contar
+        assertFalse(caja.cerrar(0));
+        atenderTodos(caja);
+        assertTrue(caja.cerrar(1e9));
+        assertEquals(0, indice.getCajasSaturadas());
+        assertEquals(0, indice.getCajasLlenas());
+    }
+
+    @Test
+    void empatesSeResuelvenPorNumeroDeCaja() {
+        List<Caja> cajas = crearCajas(6);
+        IndiceCajas indice = new IndiceCajas(cajas, UMBRAL_SATURACION, MAX_CLIENTES_POR_CAJA);
+        for (int i = 5; i >= 0; i--) {
+            cajas.get(i).abrir(0);
+        }
+        assertEquals(0, indice.cajaMenosOcupada());
+
+        formar(cajas.get(0), 1);
+        assertEquals(1, indice.cajaMenosOcupada());
+        formar(cajas.get(1), 1);
+        formar(cajas.get(2), 1);
+        assertEquals(3, indice.cajaMenosOcupada());
+        cajas.get(0).procesarPago(1e9);
+        assertEquals(0, indice.cajaMenosOcupada());
+    }
+
+    @Test
+    void coincideConRecorrerTodasLasCajas() {
+        int n = 40;
+        List<Caja> cajas = crearCajas(n);
+        Random random = new Random(17);
+        for (Caja caja : cajas) {
+            if (random.nextBoolean()) {
+                caja.abrir(0);
+            }
+        }
+        IndiceCajas indice = new IndiceCajas(cajas, UMBRAL_SATURACION, MAX_CLIENTES_POR_CAJA);
+        assertCoincide(cajas, indice, -1);
+
+        double reloj = 0;
+        for (int paso = 0; paso < 20_000; paso++) {
+            reloj += 100;
+            Caja caja = cajas.get(random.nextInt(n));
+            switch (random.nextInt(10)) {
+                case 0 -> caja.abrir(reloj);
+                case 1 -> caja.cerrar(reloj);
+                case 2, 3, 4, 5 -> formar(caja, 1);
+                default -> caja.procesarPago(reloj);
+            }
+            assertCoincide(cajas, indice, paso);
+        }
+    }
+
+    /**
+     * Compara cada consulta del índice contra un recorrido de todas las cajas
+     */
+    private static void assertCoincide(List<Caja> cajas, IndiceCajas indice, int paso) {
+        int menosOcupada = -1;
+        int saturadas = 0;
+        int llenas = 0;
+        int primeraCerrada = -1;
+        int primeraAbierta = -1;
+        int ultimaAbiertaVacia = -1;
+        int primeraConLugar = -1;
+
+        for (int i = 0; i < cajas.size(); i++) {
+            Caja caja = cajas.get(i);
+            int clientes = caja.cantidadClientes();
+            if (!caja.estaAbierta()) {
+                if (primeraCerrada == -1) {
+                    primeraCerrada = i;
+                }
+                continue;
+            }
+            if (primeraAbierta == -1) {
+                primeraAbierta = i;
+            }
+            if (clientes == 0) {
+                ultimaAbiertaVacia = i;
+            }
+            if (clientes > UMBRAL_SATURACION) {
+                saturadas++;
+            }
+            if (clientes >= MAX_CLIENTES_POR_CAJA) {
+                llenas++;
+            }
+            if (caja.colaLlena()) {
+                continue;
+            }
+            if (clientes < MAX_CLIENTES_POR_CAJA && primeraConLugar == -1) {
+                primeraConLugar = i;
+            }
+            if (menosOcupada == -1 || clientes < cajas.get(menosOcupada).cantidadClientes()) {
+                menosOcupada = i;
+            }
+        }
+
+        String donde = "paso " + paso;
+        assertEquals(menosOcupada, indice.cajaMenosOcupada(), donde);
+        assertEquals(saturadas, indice.getCajasSaturadas(), donde);
+        assertEquals(llenas, indice.getCajasLlenas(), donde);
+        assertEquals(primeraCerrada, indice.primeraCerrada(), donde);
+        assertEquals(primeraAbierta, indice.primeraAbierta(), donde);
+        assertEquals(ultimaAbiertaVacia, indice.ultimaAbiertaVacia(), donde);
+        assertEquals(primeraConLugar, indice.primeraConLugar(), donde);
+    }
+
+    private static List<Caja> crearCajas(int n) {
+        List<Caja> cajas = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            cajas.add(new Caja(i, ESCENARIO));
+        }
+        return cajas;
+    }
+
+    /**
+     * Cobra a todos los clientes de la caja, avanzando el reloj hasta que termine cada pago
+     */
+    private static void atenderTodos(Caja caja) {
+        double reloj = 0;
+        while (!caja.estaVacia()) {
+            reloj += 1e6;
+            caja.procesarPago(reloj);
+        }
+    }
+
+    private void formar(Caja caja, int clientes) {
+        for (int k = 0; k < clientes; k++) {
+            caja.agregarCliente(new Cliente(siguienteId++), 0);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Escenario;
+import costco.sim.logica.LlegadasEnGrupos;
+import costco.sim.logica.LlegadasUniformes;
+import costco.sim.logica.ServicioEmpirico;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagosEnParaleloTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void cerrarPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void muchasCajasConLlegadasRapidasDaLoMismoQueEnSecuencia() {
+        Escenario escenario = Escenario.porDefecto()
+                .conNumCajas(300)
+                .conLlegadas(0.01, 0.05)
+                .conTiempoSimulacion(240);
+        compararConSecuencial(escenario, 3);
+    }
+
+    @Test
+    void losEmpatesExactosSeOrdenanComoEnLaAgenda() {
+        // Grupos grandes que empiezan a pagar juntos y pagos cortos de duración
+        // exacta: cada caja termina varios clientes por ventana y muchos fines de
+        // pago caen en el mismo instante, en ventanas de más de 64
+        Escenario escenario = Escenario.porDefecto()
+                .conNumCajas(150)
+                .conLlegadas(new LlegadasEnGrupos(new LlegadasUniformes(1, 2), 300))
+                .conServicio(new ServicioEmpirico(new double[]{0.125, 0.25, 0.375}, new double[]{1, 2, 1}))
+                .conTiempoSimulacion(240);
+        compararConSecuencial(escenario, 8);
+    }
+
+    /**
+     * Avanza las dos simulaciones a los mismos minutos y compara su estado
+     * completo (estadísticas, cajas, agenda con secuencias) con un punto de control
+     */
+    private void compararConSecuencial(Escenario escenario, long semilla) {
+        Simulacion secuencial = new SimulacionMultiplesFilas(semilla, escenario);
+        Simulacion paralela = new SimulacionMultiplesFilas(semilla, escenario);
+        paralela.usarCajasEnParalelo(pool);
+        secuencial.iniciar();
+        paralela.iniciar();
+
+        for (double minuto = 7.5; !secuencial.haTerminado(); minuto += 7.5) {
+            secuencial.avanzarHasta(minuto);
+            paralela.avanzarHasta(minuto);
+            assertArrayEquals(PuntoControl.tomar(secuencial).getDatos(), PuntoControl.tomar(paralela).getDatos(),
+                    "minuto " + minuto);
+        }
+        assertTrue(paralela.haTerminado());
+        assertEquals(secuencial.getEstadisticas().toString(), paralela.getEstadisticas().toString());
+    }
+}
@@ -0,0 +1,128 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Escenario;
+import costco.sim.logica.LlegadasUniformes;
+import costco.sim.logica.ServicioUniforme;
+import costco.sim.logica.TipoCaja;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuntoControlTest {
+
+    @TempDir
+    Path carpeta;
+
+    private final Escenario escenario = Escenario.porDefecto().conLlegadas(0.2, 0.9);
+
+    @Test
+    void filaUnicaRestauradaTerminaIgualQueSinInterrumpir() {
+        compararConJornadaCompleta(new SimulacionFilaUnica(7, escenario), new SimulacionFilaUnica(7, escenario));
+    }
+
+    @Test
+    void filasMultiplesRestauradasTerminanIgualQueSinInterrumpir() {
+        compararConJornadaCompleta(new SimulacionMultiplesFilas(7, escenario),
+                new SimulacionMultiplesFilas(7, escenario));
+    }
+
+    @Test
+    void seGuardaYSeLeeDeUnArchivo() throws IOException {
+        Simulacion simulacion = new SimulacionFilaUnica(3, escenario);
+        simulacion.iniciar();
+        simulacion.avanzarHasta(123.5);
+        PuntoControl punto = PuntoControl.tomar(simulacion);
+
+        Path archivo = carpeta.resolve("punto.bin");
+        punto.guardar(archivo);
+        PuntoControl leido = PuntoControl.leer(archivo);
+
+        assertArrayEquals(punto.getDatos(), leido.getDatos());
+        assertTrue(leido.esFilaUnica());
+        assertEquals(3, leido.getSemilla());
+        assertEquals(escenario.numCajas(), leido.getNumeroCajas());
+        assertEquals(123.5, leido.getTiempo());
+        assertEquals(simulacion.getFabricaAleatoria().name(), leido.getAlgoritmoAleatorio());
+        // Restaurar y volver a tomar da los mismos bytes
+        assertArrayEquals(punto.getDatos(), PuntoControl.tomar(leido.restaurar(escenario)).getDatos());
+    }
+
+    @Test
+    void unaContinuacionConOtraSemillaTambienSeRetoma() {
+        Simulacion manana = new SimulacionMultiplesFilas(5, escenario);
+        manana.iniciar();
+        manana.avanzarHasta(200);
+        Simulacion tarde = PuntoControl.tomar(manana).restaurar(escenario, 99);
+        tarde.iniciar();
+        tarde.avanzarHasta(400);
+
+        Simulacion restaurada = PuntoControl.tomar(tarde).restaurar(escenario);
+        tarde.ejecutarCompleta();
+        restaurada.ejecutarCompleta();
+        assertArrayEquals(PuntoControl.tomar(tarde).getDatos(), PuntoControl.tomar(restaurada).getDatos());
+    }
+
+    @Test
+    void guardaNumerosDeCajaMayoresAUnShort() {
+        // Todas abiertas desde el principio y llegadas muy seguidas: se usan cajas por encima de 32767
+        Escenario grande = new Escenario(10, 40_000, 40_000, new LlegadasUniformes(0.00005, 0.00015), 4, 3,
+                List.of(TipoCaja.normal(new ServicioUniforme(3.0, 5.0))), 50, 100, 3);
+        Simulacion simulacion = new SimulacionMultiplesFilas(1, grande);
+        simulacion.iniciar();
+        simulacion.avanzarHasta(4);
+        assertTrue(simulacion.getCajas().get(35_000).tieneClientePagando());
+
+        Simulacion restaurada = PuntoControl.tomar(simulacion).restaurar(grande);
+        simulacion.ejecutarCompleta();
+        restaurada.ejecutarCompleta();
+        assertArrayEquals(PuntoControl.tomar(simulacion).getDatos(), PuntoControl.tomar(restaurada).getDatos());
+    }
+
+    @Test
+    void rechazaEscenariosQueNoCalzan() {
+        Simulacion simulacion = new SimulacionFilaUnica(2, escenario);
+        simulacion.iniciar();
+        simulacion.avanzarHasta(300);
+        PuntoControl punto = PuntoControl.tomar(simulacion);
+
+        assertThrows(IllegalArgumentException.class, () -> punto.restaurar(escenario.conNumCajas(13)));
+        assertThrows(IllegalArgumentException.class, () -> punto.restaurar(escenario.conTiempoSimulacion(299)));
+        assertDoesNotThrow(() -> punto.restaurar(escenario.conTiempoSimulacion(300)));
+    }
+
+    @Test
+    void rechazaArchivosQueNoSonPuntosDeControl() throws IOException {
+        Path archivo = carpeta.resolve("otro.bin");
+        Files.write(archivo, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IllegalArgumentException.class, () -> PuntoControl.leer(archivo));
+
+        Files.write(archivo, new byte[]{0x43, 0x53});
+        assertThrows(IllegalArgumentException.class, () -> PuntoControl.leer(archivo));
+    }
+
+    /**
+     * Corre una jornada completa y otra que se corta a la mitad, se restaura y sigue
+     */
+    private void compararConJornadaCompleta(Simulacion completa, Simulacion cortada) {
+        completa.ejecutarCompleta();
+
+        cortada.iniciar();
+        cortada.avanzarHasta(300);
+        PuntoControl punto = PuntoControl.tomar(cortada);
+        Simulacion restaurada = punto.restaurar(escenario);
+        assertEquals(300, restaurada.getTiempoActualExacto());
+        restaurada.ejecutarCompleta();
+        cortada.ejecutarCompleta();
+
+        byte[] esperado = PuntoControl.tomar(completa).getDatos();
+        assertArrayEquals(esperado, PuntoControl.tomar(cortada).getDatos());
+        assertArrayEquals(esperado, PuntoControl.tomar(restaurada).getDatos());
+        assertEquals(completa.getEstadisticas().toString(), restaurada.getEstadisticas().toString());
+    }
+}
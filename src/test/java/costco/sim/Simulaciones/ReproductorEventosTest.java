@@ -0,0 +1,114 @@
+package costco.sim.Simulaciones;
+
+import costco.sim.logica.Escenario;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReproductorEventosTest {
+
+    @TempDir
+    Path carpeta;
+
+    // Minutos y estado visible de la simulación en vivo en cada uno
+    private final List<Double> tiempos = new ArrayList<>();
+    private final List<String> enVivo = new ArrayList<>();
+    private String alTerminar;
+
+    @Test
+    void filaUnicaSeReproduceIgualQueEnVivo() throws IOException {
+        compararConEnVivo(new SimulacionFilaUnica(11, Escenario.porDefecto()));
+    }
+
+    @Test
+    void filasMultiplesSeReproducenIgualQueEnVivo() throws IOException {
+        compararConEnVivo(new SimulacionMultiplesFilas(11, Escenario.porDefecto()));
+    }
+
+    @Test
+    void irAFueraDeLaJornadaQuedaEnLosExtremos() throws IOException {
+        Path archivo = grabar(new SimulacionMultiplesFilas(4, Escenario.porDefecto()));
+        try (ReproductorEventos reproductor = new ReproductorEventos(archivo)) {
+            reproductor.irA(1e9);
+            assertEquals(reproductor.getTiempoFinal(), reproductor.getTiempo());
+            assertEquals(alTerminar, estado(reproductor.instantanea()));
+
+            reproductor.irA(-5);
+            assertEquals(0, reproductor.getTiempo());
+            assertEquals(enVivo.getFirst(), estado(reproductor.instantanea()));
+        }
+    }
+
+    private void compararConEnVivo(Simulacion simulacion) throws IOException {
+        Path archivo = grabar(simulacion);
+        try (ReproductorEventos reproductor = new ReproductorEventos(archivo)) {
+            // Hacia adelante, pasando por todos los cuadros clave
+            for (int i = 0; i < tiempos.size(); i++) {
+                assertEnVivo(reproductor, i);
+            }
+            // Hacia atrás
+            for (int i = tiempos.size() - 1; i >= 0; i--) {
+                assertEnVivo(reproductor, i);
+            }
+            // Saltos al azar en las dos direcciones
+            Random random = new Random(5);
+            for (int k = 0; k < 2000; k++) {
+                assertEnVivo(reproductor, random.nextInt(tiempos.size()));
+            }
+        }
+    }
+
+    private void assertEnVivo(ReproductorEventos reproductor, int i) {
+        reproductor.irA(tiempos.get(i));
+        assertEquals(enVivo.get(i), estado(reproductor.instantanea()), "minuto " + tiempos.get(i));
+    }
+
+    /**
+     * Graba la jornada completa tomando el estado en vivo en minutos al azar
+     */
+    private Path grabar(Simulacion simulacion) throws IOException {
+        Path archivo = carpeta.resolve("jornada.bin");
+        try (GrabadorEventos grabador = new GrabadorEventos(archivo, false)) {
+            grabador.grabar(simulacion);
+            simulacion.iniciar();
+            Random random = new Random(3);
+            double t = 0;
+            do {
+                tiempos.add(t);
+                enVivo.add(estado(new InstantaneaSimulacion(simulacion)));
+                t += random.nextDouble() * 3;
+                simulacion.avanzarHasta(t);
+            } while (!simulacion.haTerminado());
+            alTerminar = estado(new InstantaneaSimulacion(simulacion));
+        }
+        return archivo;
+    }
+
+    private static String estado(InstantaneaSimulacion instantanea) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < instantanea.getNumeroCajas(); i++) {
+            texto.append(instantanea.cajaAbierta(i) ? 'A' : 'C')
+                    .append(instantanea.getClientePagando(i)).append('/')
+                    .append(instantanea.getAtendidos(i)).append('[');
+            for (int pos = 0; pos < instantanea.getTamanioFila(i); pos++) {
+                texto.append(instantanea.getClienteEnFila(i, pos)).append(',');
+            }
+            texto.append(']');
+        }
+        texto.append(" general[");
+        for (int pos = 0; pos < instantanea.getTamanioFilaGeneral(); pos++) {
+            texto.append(instantanea.getClienteEnFilaGeneral(pos)).append(',');
+        }
+        return texto.append("] ").append(instantanea.getCajasAbiertas())
+                .append(' ').append(instantanea.getClientesAtendidos())
+                .append(String.format(" %.6f %.6f", instantanea.getEsperaPromedio(), instantanea.getPagoPromedio()))
+                .toString();
+    }
+}
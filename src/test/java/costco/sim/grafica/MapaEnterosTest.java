@@ -0,0 +1,80 @@
+package costco.sim.grafica;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaEnterosTest {
+
+    @Test
+    void ponerObtenerYQuitar() {
+        MapaEnteros mapa = new MapaEnteros(4);
+        mapa.poner(7, 70);
+        mapa.poner(3, 30);
+        mapa.poner(7, 71);
+
+        assertEquals(2, mapa.tamanio());
+        assertEquals(71, mapa.obtener(7));
+        assertEquals(30, mapa.obtener(3));
+        assertEquals(MapaEnteros.NO_ENCONTRADO, mapa.obtener(5));
+
+        mapa.quitar(7);
+        mapa.quitar(5);
+        assertEquals(1, mapa.tamanio());
+        assertEquals(MapaEnteros.NO_ENCONTRADO, mapa.obtener(7));
+        assertEquals(30, mapa.obtener(3));
+    }
+
+    @Test
+    void laClaveCeroEstaReservada() {
+        MapaEnteros mapa = new MapaEnteros(4);
+        assertThrows(IllegalArgumentException.class, () -> mapa.poner(0, 1));
+
+        // Quitar la clave 0 no debe confundirla con un lugar vacío ni tocar la cantidad
+        mapa.poner(5, 50);
+        assertThrows(IllegalArgumentException.class, () -> mapa.quitar(0));
+        assertEquals(1, mapa.tamanio());
+        assertEquals(50, mapa.obtener(5));
+        assertEquals(MapaEnteros.NO_ENCONTRADO, mapa.obtener(0));
+    }
+
+    @Test
+    void limpiarDejaElMapaVacio() {
+        MapaEnteros mapa = new MapaEnteros(4);
+        for (int i = 1; i <= 100; i++) {
+            mapa.poner(i, i);
+        }
+        mapa.limpiar();
+        assertEquals(0, mapa.tamanio());
+        assertEquals(MapaEnteros.NO_ENCONTRADO, mapa.obtener(50));
+    }
+
+    @Test
+    void coincideConUnHashMapAlCrecerYBorrar() {
+        // Pocas claves distintas y una capacidad inicial chica: hay colisiones,
+        // crecimiento y muchos borrados con corrimiento hacia atrás
+        MapaEnteros mapa = new MapaEnteros(2);
+        Map<Integer, Integer> esperado = new HashMap<>();
+        Random random = new Random(17);
+
+        for (int paso = 0; paso < 200_000; paso++) {
+            int clave = 1 + random.nextInt(paso < 100_000 ? 5000 : 300);
+            if (random.nextInt(3) == 0) {
+                mapa.quitar(clave);
+                esperado.remove(clave);
+            } else {
+                mapa.poner(clave, paso);
+                esperado.put(clave, paso);
+            }
+        }
+
+        assertEquals(esperado.size(), mapa.tamanio());
+        for (int clave = 1; clave <= 5000; clave++) {
+            assertEquals(esperado.getOrDefault(clave, MapaEnteros.NO_ENCONTRADO), mapa.obtener(clave));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package costco.sim.logica;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColaTest {
+
+    @Test
+    void reutilizaLosEspaciosAlDarLaVuelta() {
+        Cola<Integer> cola = new Cola<>(3);
+        cola.insertar(1);
+        cola.insertar(2);
+        cola.insertar(3);
+        assertTrue(cola.estaLlena());
+        assertFalse(cola.insertar(4));
+
+        assertEquals(1, cola.eliminar());
+        assertEquals(2, cola.eliminar());
+        assertTrue(cola.insertar(4));
+        assertTrue(cola.insertar(5));
+        assertTrue(cola.estaLlena());
+
+        // El contenido quedó partido en dos tramos del arreglo
+        assertEquals(3, cola.get(0));
+        assertEquals(4, cola.get(1));
+        assertEquals(5, cola.get(2));
+        assertArrayEquals(new Integer[]{3, 4, 5}, cola.toArray(new Integer[0]));
+        assertEquals(List.of(3, 4, 5), enLista(cola));
+
+        assertEquals(3, cola.eliminar());
+        assertEquals(4, cola.eliminar());
+        assertEquals(5, cola.eliminar());
+        assertNull(cola.eliminar());
+        assertTrue(cola.estaVacia());
+    }
+
+    @Test
+    void creceConservandoElOrdenDespuesDeDarLaVuelta() {
+        Cola<Integer> cola = new Cola<>(4, true);
+        for (int i = 0; i < 4; i++) {
+            cola.insertar(i);
+        }
+        cola.eliminar();
+        cola.eliminar();
+        cola.insertar(4);
+        cola.insertar(5);
+
+        // Llena y con el frente a mitad del arreglo: la siguiente inserción redimensiona
+        assertFalse(cola.estaLlena());
+        assertTrue(cola.insertar(6));
+        assertEquals(8, cola.capacidad());
+        assertEquals(List.of(2, 3, 4, 5, 6), enLista(cola));
+
+        for (int i = 7; i < 20; i++) {
+            cola.insertar(i);
+        }
+        assertEquals(18, cola.tamanio());
+        for (int esperado = 2; esperado < 20; esperado++) {
+            assertEquals(esperado, cola.eliminar());
+        }
+        assertTrue(cola.estaVacia());
+    }
+
+    @Test
+    void toArrayMarcaElFinalSiSobraEspacio() {
+        Cola<String> cola = new Cola<>(4);
+        cola.insertar("a");
+        cola.insertar("b");
+
+        String[] destino = {"x", "x", "x", "x"};
+        assertSame(destino, cola.toArray(destino));
+        assertArrayEquals(new String[]{"a", "b", null, "x"}, destino);
+    }
+
+    @Test
+    void getFueraDeRangoFalla() {
+        Cola<Integer> cola = new Cola<>(2);
+        cola.insertar(1);
+        assertThrows(IndexOutOfBoundsException.class, () -> cola.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> cola.get(-1));
+    }
+
+    @Test
+    void conCapacidadCeroCrece() {
+        Cola<Integer> cola = Cola.conCapacidad(0);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(cola.insertar(i));
+        }
+        assertFalse(cola.estaLlena());
+        assertEquals(100, cola.tamanio());
+    }
+
+    private static <T> List<T> enLista(Cola<T> cola) {
+        List<T> lista = new ArrayList<>();
+        for (T elemento : cola) {
+            lista.add(elemento);
+        }
+        return lista;
+    }
+}
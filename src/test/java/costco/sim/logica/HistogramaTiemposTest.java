@@ -0,0 +1,85 @@
+package costco.sim.logica;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramaTiemposTest {
+
+    // Cada potencia de 2 se parte en 32 cubetas: el error relativo es menor a 1/32
+    private static final double ERROR_RELATIVO = 1.0 / 32;
+
+    @Test
+    void vacioDaCero() {
+        HistogramaTiempos histograma = new HistogramaTiempos();
+        assertEquals(0, histograma.getTotal());
+        assertEquals(0, histograma.percentil(50));
+    }
+
+    @Test
+    void percentilesDentroDelErrorDeLaCubeta() {
+        HistogramaTiempos histograma = new HistogramaTiempos();
+        Random random = new Random(11);
+        double[] tiempos = new double[20_000];
+        for (int i = 0; i < tiempos.length; i++) {
+            tiempos[i] = -5 * Math.log(1 - random.nextDouble());
+            histograma.registrar(tiempos[i]);
+        }
+        Arrays.sort(tiempos);
+
+        for (double percentil : new double[]{10, 50, 90, 99, 99.9}) {
+            int rango = (int) Math.ceil(percentil / 100 * tiempos.length) - 1;
+            double exacto = tiempos[rango];
+            assertEquals(exacto, histograma.percentil(percentil), exacto * ERROR_RELATIVO,
+                    "percentil " + percentil);
+        }
+        assertEquals(tiempos.length, histograma.getTotal());
+    }
+
+    @Test
+    void losPercentilesNoSalenDelRangoRegistrado() {
+        HistogramaTiempos histograma = new HistogramaTiempos();
+        histograma.registrar(2.5);
+        assertEquals(2.5, histograma.percentil(1));
+        assertEquals(2.5, histograma.percentil(100));
+
+        histograma.registrar(7.25);
+        histograma.registrar(3);
+        assertEquals(7.25, histograma.percentil(100));
+    }
+
+    @Test
+    void ceroYValoresEnormesCaenEnLasCubetasDeLasPuntas() {
+        HistogramaTiempos histograma = new HistogramaTiempos();
+        histograma.registrar(0);
+        histograma.registrar(1e9);
+
+        assertEquals(1, histograma.getConteoCubeta(0));
+        assertEquals(1, histograma.getConteoCubeta(histograma.getNumeroCubetas() - 1));
+        assertEquals(0, histograma.percentil(50));
+        assertEquals(1e9, histograma.percentil(100));
+    }
+
+    @Test
+    void combinarEsComoRegistrarTodoEnUno() {
+        HistogramaTiempos a = new HistogramaTiempos();
+        HistogramaTiempos b = new HistogramaTiempos();
+        HistogramaTiempos todos = new HistogramaTiempos();
+        Random random = new Random(5);
+        for (int i = 0; i < 1000; i++) {
+            double tiempo = random.nextDouble() * 30;
+            (i % 3 == 0 ? a : b).registrar(tiempo);
+            todos.registrar(tiempo);
+        }
+
+        a.combinar(b);
+        assertEquals(todos.getTotal(), a.getTotal());
+        for (int i = 0; i < todos.getNumeroCubetas(); i++) {
+            assertEquals(todos.getConteoCubeta(i), a.getConteoCubeta(i));
+        }
+        assertEquals(todos.percentil(95), a.percentil(95));
+    }
+}
@@ -0,0 +1,44 @@
+package costco.sim.logica;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervaloConfianzaTest {
+
+    @Test
+    void conDosReplicasUsaLaTConUnGradoDeLibertad() {
+        // s = 1/√2, t(1) = 12.706: semiancho = 12.706 · (1/√2) / √2 = 6.353
+        IntervaloConfianza intervalo = new IntervaloConfianza(new double[]{0, 1});
+        assertEquals(0.5, intervalo.getMedia(), 1e-12);
+        assertEquals(6.3531, intervalo.getSemiAncho(), 1e-4);
+    }
+
+    @Test
+    void conTresReplicasUsaLaTConDosGradosDeLibertad() {
+        // s = 1, t(2) = 4.303: semiancho = 4.303 / √3 = 2.484
+        IntervaloConfianza intervalo = new IntervaloConfianza(new double[]{1, 2, 3});
+        assertEquals(1, intervalo.getDesviacion(), 1e-12);
+        assertEquals(2.4841, intervalo.getSemiAncho(), 1e-4);
+        assertEquals(2 - 2.4841, intervalo.getInferior(), 1e-4);
+        assertEquals(2 + 2.4841, intervalo.getSuperior(), 1e-4);
+    }
+
+    @Test
+    void arribaDeLaTablaSeAcercaALaNormal() {
+        // Valores exactos de la t: 40 → 2.021075, 100 → 1.983972, 1000 → 1.962339
+        assertEquals(2.021075, IntervaloConfianza.cuantilT(40), 1e-4);
+        assertEquals(1.983972, IntervaloConfianza.cuantilT(100), 1e-5);
+        assertEquals(1.962339, IntervaloConfianza.cuantilT(1000), 1e-6);
+        // Sin saltos al salir de la tabla
+        assertEquals(IntervaloConfianza.cuantilT(30), IntervaloConfianza.cuantilT(31), 0.005);
+        assertTrue(IntervaloConfianza.cuantilT(31) < IntervaloConfianza.cuantilT(30));
+    }
+
+    @Test
+    void conUnaSolaReplicaNoHayAncho() {
+        IntervaloConfianza intervalo = new IntervaloConfianza(new double[]{4});
+        assertEquals(4, intervalo.getMedia());
+        assertEquals(0, intervalo.getSemiAncho());
+    }
+}
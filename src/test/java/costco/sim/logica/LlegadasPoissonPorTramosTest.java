@@ -0,0 +1,145 @@
+package costco.sim.logica;
+
+import costco.sim.Simulaciones.Simulacion;
+import costco.sim.Simulaciones.SimulacionMultiplesFilas;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LlegadasPoissonPorTramosTest {
+
+    @Test
+    void lasLlegadasPorTramoSiguenLaIntegralDeLaTasa() {
+        // Sube de 2 a 6, baja a 0, se queda en 0 un tramo y vuelve a subir hasta 3
+        double[] minutos = {0, 60, 120, 180, 240};
+        LlegadasPoissonPorTramos llegadas = new LlegadasPoissonPorTramos(minutos, new double[]{2, 6, 0, 0, 3});
+        // Área bajo la tasa en cada tramo (trapecios); después de 240 queda en 3
+        double[] esperadas = {240, 180, 0, 90, 180};
+        double fin = 300;
+        int jornadas = 200;
+
+        long[] contadas = new long[esperadas.length];
+        SplittableRandom random = new SplittableRandom(8);
+        for (int jornada = 0; jornada < jornadas; jornada++) {
+            double t = llegadas.siguienteLlegada(0, random);
+            while (t < fin) {
+                int tramo = 0;
+                while (tramo + 1 < minutos.length && t >= minutos[tramo + 1]) {
+                    tramo++;
+                }
+                contadas[tramo]++;
+                t = llegadas.siguienteLlegada(t, random);
+            }
+        }
+
+        assertEquals(0, contadas[2], "el tramo con tasa 0 no debe tener llegadas");
+        for (int tramo = 0; tramo < esperadas.length; tramo++) {
+            if (esperadas[tramo] == 0) {
+                continue;
+            }
+            // Poisson: la varianza es igual a la media; se permiten 5 desviaciones
+            double media = (double) contadas[tramo] / jornadas;
+            double tolerancia = 5 * Math.sqrt(esperadas[tramo] / jornadas);
+            assertEquals(esperadas[tramo], media, tolerancia, "tramo " + tramo);
+        }
+    }
+
+    @Test
+    void siguenLaFormaDeLaTasaDentroDeUnTramo() {
+        // De 0 a 10 en 100 minutos: en la segunda mitad llega tres veces más gente que en la primera
+        LlegadasPoissonPorTramos llegadas = new LlegadasPoissonPorTramos(new double[]{0, 100}, new double[]{0, 10});
+        SplittableRandom random = new SplittableRandom(2);
+        long primeraMitad = 0, segundaMitad = 0;
+        for (int jornada = 0; jornada < 100; jornada++) {
+            for (double t = llegadas.siguienteLlegada(0, random); t < 100; t = llegadas.siguienteLlegada(t, random)) {
+                if (t < 50) {
+                    primeraMitad++;
+                } else {
+                    segundaMitad++;
+                }
+            }
+        }
+        // Esperadas por jornada: 125 y 375
+        assertEquals(125, primeraMitad / 100.0, 5 * Math.sqrt(125 / 100.0));
+        assertEquals(375, segundaMitad / 100.0, 5 * Math.sqrt(375 / 100.0));
+    }
+
+    @Test
+    void unaColaEnCeroNoTieneMasLlegadas() {
+        LlegadasPoissonPorTramos llegadas = new LlegadasPoissonPorTramos(
+                new double[]{0, 10, 20}, new double[]{1, 0, 0});
+        SplittableRandom random = new SplittableRandom(5);
+
+        assertEquals(Double.POSITIVE_INFINITY, llegadas.siguienteLlegada(10, random));
+        assertEquals(Double.POSITIVE_INFINITY, llegadas.siguienteLlegada(15, random));
+        assertEquals(Double.POSITIVE_INFINITY, llegadas.siguienteLlegada(1e6, random));
+
+        // Desde el principio llegan algunas antes del minuto 10 y luego ninguna
+        for (int jornada = 0; jornada < 50; jornada++) {
+            double t = llegadas.siguienteLlegada(0, random);
+            while (t != Double.POSITIVE_INFINITY) {
+                assertTrue(t < 10, "llegada en el minuto " + t);
+                t = llegadas.siguienteLlegada(t, random);
+            }
+        }
+    }
+
+    @Test
+    void conTasaAltaHayVariasLlegadasPorMinuto() {
+        LlegadasPoissonPorTramos llegadas = new LlegadasPoissonPorTramos(new double[]{0}, new double[]{200});
+        SplittableRandom random = new SplittableRandom(1);
+        int enElPrimerMinuto = 0;
+        double anterior = 0;
+        for (double t = llegadas.siguienteLlegada(0, random); t < 1; t = llegadas.siguienteLlegada(t, random)) {
+            assertTrue(t > anterior);
+            anterior = t;
+            enElPrimerMinuto++;
+        }
+        assertEquals(200, enElPrimerMinuto, 5 * Math.sqrt(200));
+    }
+
+    @Test
+    void laSimulacionAtiendeTodasLasLlegadasDeUnMismoMinuto() {
+        // 20 clientes por minuto durante 30 minutos y cajas de sobra
+        LlegadasPoissonPorTramos llegadas = new LlegadasPoissonPorTramos(new double[]{0}, new double[]{20});
+        Escenario escenario = new Escenario(30, 80, 80, llegadas, 4, 3,
+                List.of(TipoCaja.normal(new ServicioUniforme(1.0, 2.0))), 50, 500, 3);
+        Simulacion simulacion = new SimulacionMultiplesFilas(6, escenario);
+
+        List<Double> tiempos = new ArrayList<>();
+        simulacion.setRegistro((tipo, numeroCaja, idCliente) -> {
+            if (tipo == TipoRegistro.LLEGADA) {
+                tiempos.add(simulacion.getTiempoActualExacto());
+            }
+        });
+        simulacion.ejecutarCompleta();
+
+        assertEquals(600, tiempos.size(), 5 * Math.sqrt(600));
+        int[] porMinuto = new int[escenario.tiempoSimulacion()];
+        for (double t : tiempos) {
+            porMinuto[(int) t]++;
+        }
+        for (int minuto = 0; minuto < porMinuto.length; minuto++) {
+            assertTrue(porMinuto[minuto] > 1, "minuto " + minuto + " con " + porMinuto[minuto] + " llegadas");
+        }
+        assertEquals(tiempos.size(), simulacion.getEstadisticas().getTotalClientesAtendidos());
+    }
+
+    @Test
+    void rechazaTramosInvalidos() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LlegadasPoissonPorTramos(new double[]{0, 10}, new double[]{1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LlegadasPoissonPorTramos(new double[]{5}, new double[]{1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LlegadasPoissonPorTramos(new double[]{0, 10, 10}, new double[]{1, 1, 1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LlegadasPoissonPorTramos(new double[]{0, 10}, new double[]{1, -1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LlegadasPoissonPorTramos(new double[]{0, 10}, new double[]{0, 0}));
+    }
+}
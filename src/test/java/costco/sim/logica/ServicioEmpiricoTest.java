@@ -0,0 +1,68 @@
+package costco.sim.logica;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServicioEmpiricoTest {
+
+    @TempDir
+    Path carpeta;
+
+    @Test
+    void lasFrecuenciasSiguenLosPesos() {
+        double[] tiempos = {1, 2, 3, 4, 5};
+        double[] pesos = {1, 0, 3, 6, 0.5};
+        ServicioEmpirico servicio = new ServicioEmpirico(tiempos, pesos);
+        SplittableRandom random = new SplittableRandom(8);
+
+        int muestras = 500_000;
+        int[] conteo = new int[tiempos.length];
+        for (int k = 0; k < muestras; k++) {
+            conteo[(int) servicio.muestrear(random) - 1]++;
+        }
+
+        assertEquals(0, conteo[1], "un tiempo con peso 0 no debe salir");
+        double total = 10.5;
+        for (int i = 0; i < tiempos.length; i++) {
+            assertEquals(pesos[i] / total, (double) conteo[i] / muestras, 0.004, "tiempo " + tiempos[i]);
+        }
+        assertEquals((1 + 9 + 24 + 2.5) / total, servicio.media(), 1e-12);
+    }
+
+    @Test
+    void unSoloTiempoSiempreSale() {
+        ServicioEmpirico servicio = new ServicioEmpirico(new double[]{2.5}, new double[]{7});
+        SplittableRandom random = new SplittableRandom(1);
+        for (int k = 0; k < 1000; k++) {
+            assertEquals(2.5, servicio.muestrear(random));
+        }
+    }
+
+    @Test
+    void rechazaDatosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new ServicioEmpirico(new double[0], new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> new ServicioEmpirico(new double[]{1, 2}, new double[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> new ServicioEmpirico(new double[]{0}, new double[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> new ServicioEmpirico(new double[]{1}, new double[]{-1}));
+        assertThrows(IllegalArgumentException.class, () -> new ServicioEmpirico(new double[]{1, 2}, new double[]{0, 0}));
+    }
+
+    @Test
+    void leeTiemposYPesosDeUnArchivo() throws IOException {
+        Path archivo = carpeta.resolve("tiempos.txt");
+        Files.writeString(archivo, "# minutos peso\n2 3\n\n4,1\n6\n");
+
+        ServicioEmpirico servicio = ServicioEmpirico.desdeArchivo(archivo);
+        assertEquals((2 * 3 + 4 + 6) / 5.0, servicio.media(), 1e-12);
+
+        Files.writeString(archivo, "2 x\n");
+        assertThrows(IllegalArgumentException.class, () -> ServicioEmpirico.desdeArchivo(archivo));
+    }
+}
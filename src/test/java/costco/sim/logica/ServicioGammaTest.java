@@ -0,0 +1,61 @@
+package costco.sim.logica;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServicioGammaTest {
+
+    private static final int MUESTRAS = 400_000;
+
+    @Test
+    void mediaYVarianzaConFormaMayorQueUno() {
+        compararMomentos(2, 1.5);
+        compararMomentos(9, 0.4);
+    }
+
+    @Test
+    void mediaYVarianzaConFormaMenorQueUno() {
+        // Usa la corrección U^(1/k) sobre una gamma de forma k + 1
+        compararMomentos(0.5, 3);
+        compararMomentos(0.2, 10);
+    }
+
+    @Test
+    void nuncaDevuelveCeroNiNegativos() {
+        ServicioGamma servicio = new ServicioGamma(0.05, 1);
+        SplittableRandom random = new SplittableRandom(4);
+        for (int k = 0; k < 100_000; k++) {
+            assertTrue(servicio.muestrear(random) > 0);
+        }
+    }
+
+    @Test
+    void rechazaParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new ServicioGamma(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ServicioGamma(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> new ServicioGamma(Double.NaN, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ServicioGamma(1, Double.POSITIVE_INFINITY));
+    }
+
+    private static void compararMomentos(double forma, double escala) {
+        ServicioGamma servicio = new ServicioGamma(forma, escala);
+        SplittableRandom random = new SplittableRandom(31);
+        double suma = 0, sumaCuadrados = 0;
+        for (int k = 0; k < MUESTRAS; k++) {
+            double x = servicio.muestrear(random);
+            suma += x;
+            sumaCuadrados += x * x;
+        }
+        double media = suma / MUESTRAS;
+        double varianza = sumaCuadrados / MUESTRAS - media * media;
+
+        // Media k * theta y varianza k * theta^2
+        String nombre = "forma " + forma;
+        assertEquals(forma * escala, servicio.media(), 1e-12, nombre);
+        assertEquals(forma * escala, media, forma * escala * 0.01, nombre);
+        assertEquals(forma * escala * escala, varianza, forma * escala * escala * 0.04, nombre);
+    }
+}